@@ -1,5 +1,6 @@
 package com.apigateway.gateway.config;
 
+import com.apigateway.gateway.ratelimit.RateLimitFilter;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
@@ -9,12 +10,19 @@ import org.springframework.context.annotation.Configuration;
 public class GatewayConfig {
 
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder, RateLimitFilter rateLimits) {
         return builder.routes()
+            // Análise em lote: rota própria para ter limites próprios (sem limite por usuário)
+            .route("fraud_batch_route",
+                r -> r.order(-1)
+                .path("/analyze/batch/**")
+                .filters(f -> f.filter(rateLimits.forRoute("fraud_batch_route")))
+                .uri("http://orchestrator:8081"))
             // Rota para o serviço do orquestrador de fraude
             .route("fraud_analysis_route",
                 r -> r.path("/analyze/**")
+                .filters(f -> f.filter(rateLimits.forRoute("fraud_analysis_route")))
                 .uri("http://orchestrator:8081"))
             .build();
     }
-}
\ No newline at end of file
+}
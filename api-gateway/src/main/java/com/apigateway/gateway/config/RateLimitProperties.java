@@ -0,0 +1,49 @@
+package com.apigateway.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+// Limites de requisições por rota, aplicados em memória no próprio gateway
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        // Header com o usuário, aceito só de proxies confiáveis; sem ele, o userId é lido do
+        // corpo (até maxBodyBytes; corpos maiores recebem 413 nas rotas com limite por usuário)
+        @DefaultValue("X-User-Id") String userHeader,
+        @DefaultValue("16384") int maxBodyBytes,
+        // Header com o cliente, aceito só de proxies confiáveis; sem ele, vale o endereço da conexão
+        @DefaultValue("X-Client-Id") String clientHeader,
+        // Endereços IP de proxies que autenticam o chamador e definem os headers acima.
+        // Vazio: os headers são sempre ignorados
+        Set<String> trustedProxies,
+        // Baldes ociosos são descartados (e voltam cheios no próximo acesso)
+        @DefaultValue("200000") long maxTrackedKeys,
+        @DefaultValue("10m") Duration idleExpiry,
+        // Chave = id da rota em GatewayConfig
+        Map<String, RouteLimits> routes
+) {
+    public RateLimitProperties {
+        routes = routes == null ? Map.of() : Map.copyOf(routes);
+        trustedProxies = trustedProxies == null ? Set.of() : Set.copyOf(trustedProxies);
+    }
+
+    // Escopos sem configuração não são limitados
+    public record RouteLimits(Limit user, Limit client, Limit global) {}
+
+    public record Limit(
+            // Rajada máxima aceita de uma vez
+            long capacity,
+            // Taxa sustentada
+            double refillPerSecond
+    ) {
+        public Limit {
+            if (capacity <= 0 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("capacity e refill-per-second devem ser positivos");
+            }
+        }
+    }
+}
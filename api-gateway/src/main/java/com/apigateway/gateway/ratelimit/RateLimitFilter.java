@@ -0,0 +1,248 @@
+package com.apigateway.gateway.ratelimit;
+
+import com.apigateway.gateway.config.RateLimitProperties;
+import com.apigateway.gateway.config.RateLimitProperties.Limit;
+import com.apigateway.gateway.config.RateLimitProperties.RouteLimits;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Controle de admissão por rota: um token bucket por usuário, por cliente e global,
+// verificados nessa ordem (do mais específico ao mais amplo). Requisições acima do limite
+// recebem 429 imediatamente, sem chegar ao orquestrador. Os baldes ficam em memória, então
+// cada instância do gateway aplica os limites de forma independente.
+// As chaves não podem ser escolhidas livremente por quem chama: o usuário é o userId do corpo
+// (o mesmo que o orquestrador analisa) e o cliente é o endereço da conexão. Os headers de
+// usuário e cliente só valem quando a conexão vem de um proxy confiável (trusted-proxies).
+@Component
+public class RateLimitFilter {
+
+    static final String SCOPE_USER = "user";
+    static final String SCOPE_CLIENT = "client";
+    static final String SCOPE_GLOBAL = "global";
+    private static final String[] SCOPES = {SCOPE_USER, SCOPE_CLIENT, SCOPE_GLOBAL};
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final JsonFactory jsonFactory;
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.jsonFactory = objectMapper.getFactory();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxTrackedKeys())
+                .expireAfterAccess(properties.idleExpiry())
+                .build();
+        Gauge.builder("gateway.ratelimit.buckets", buckets, Cache::estimatedSize)
+                .description("Baldes de rate limit em memória")
+                .register(meterRegistry);
+    }
+
+    public GatewayFilter forRoute(String routeId) {
+        RouteLimits limits = properties.routes().get(routeId);
+        if (!properties.enabled() || limits == null) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+        RouteMeters meters = new RouteMeters(routeId);
+
+        return (exchange, chain) -> {
+            if (limits.user() == null) {
+                return admit(routeId, limits, meters, exchange, null, () -> chain.filter(exchange));
+            }
+            String trustedUserId = trustedHeader(exchange, properties.userHeader());
+            if (trustedUserId != null) {
+                return admit(routeId, limits, meters, exchange, trustedUserId, () -> chain.filter(exchange));
+            }
+
+            // Lê o corpo (qualquer tipo, com ou sem Content-Length) até maxBodyBytes; ele é
+            // reenviado ao orquestrador a partir da cópia. Corpos maiores recebem 413
+            return DataBufferUtils.join(exchange.getRequest().getBody(), properties.maxBodyBytes())
+                    .map(RateLimitFilter::copyAndRelease)
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(body -> {
+                        ServerWebExchange cached = exchange.mutate().request(replayBody(exchange.getRequest(), body)).build();
+                        return admit(routeId, limits, meters, cached, userIdFrom(body), () -> chain.filter(cached));
+                    })
+                    .onErrorResume(DataBufferLimitException.class, e -> {
+                        meters.tooLarge.increment();
+                        exchange.getResponse().setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE);
+                        return exchange.getResponse().setComplete();
+                    });
+        };
+    }
+
+    // Tenta os escopos em ordem. Se um deles recusar, devolve os tokens já tomados nos
+    // anteriores, então uma requisição recusada não consome o limite de nenhum escopo
+    private Mono<Void> admit(
+            String routeId,
+            RouteLimits limits,
+            RouteMeters meters,
+            ServerWebExchange exchange,
+            String userId,
+            Supplier<Mono<Void>> proceed
+    ) {
+        long now = System.nanoTime();
+        String[] keys = {userId, clientId(exchange), "*"};
+        Limit[] scopeLimits = {limits.user(), limits.client(), limits.global()};
+        TokenBucket[] acquired = new TokenBucket[SCOPES.length];
+
+        for (int scope = 0; scope < SCOPES.length; scope++) {
+            Limit limit = scopeLimits[scope];
+            if (keys[scope] == null || limit == null) {
+                continue;
+            }
+            TokenBucket bucket = buckets.get(routeId + '|' + SCOPES[scope] + '|' + keys[scope],
+                    k -> new TokenBucket(limit, now));
+            long waitNanos = bucket.tryAcquire(now);
+            if (waitNanos > 0) {
+                for (TokenBucket taken : acquired) {
+                    if (taken != null) {
+                        taken.refund();
+                    }
+                }
+                meters.rejected[scope].increment();
+                reject(exchange, SCOPES[scope], waitNanos);
+                return exchange.getResponse().setComplete();
+            }
+            acquired[scope] = bucket;
+        }
+
+        for (int scope = 0; scope < SCOPES.length; scope++) {
+            if (acquired[scope] != null) {
+                meters.allowed[scope].increment();
+            }
+        }
+        return proceed.get();
+    }
+
+    private static void reject(ServerWebExchange exchange, String scope, long waitNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+        response.getHeaders().set("X-RateLimit-Scope", scope);
+    }
+
+    // Cliente identificado pelo proxy confiável ou, sem ele, pelo endereço da conexão
+    private String clientId(ServerWebExchange exchange) {
+        String clientId = trustedHeader(exchange, properties.clientHeader());
+        if (clientId != null) {
+            return clientId;
+        }
+        String address = remoteAddress(exchange);
+        return address == null ? "unknown" : address;
+    }
+
+    // Valor do header só se a conexão vier de um proxy confiável; de outros, é ignorado
+    private String trustedHeader(ServerWebExchange exchange, String header) {
+        if (properties.trustedProxies().isEmpty() || !properties.trustedProxies().contains(remoteAddress(exchange))) {
+            return null;
+        }
+        String value = exchange.getRequest().getHeaders().getFirst(header);
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static String remoteAddress(ServerWebExchange exchange) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        if (remote == null) {
+            return null;
+        }
+        return remote.getAddress() == null ? remote.getHostString() : remote.getAddress().getHostAddress();
+    }
+
+    private static byte[] copyAndRelease(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    // Mesma requisição com o corpo já lido, entregue de novo a cada assinatura
+    private static ServerHttpRequest replayBody(ServerHttpRequest request, byte[] body) {
+        return new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> body.length == 0
+                        ? Flux.empty()
+                        : Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+            }
+        };
+    }
+
+    // Procura "userId" só no primeiro nível do objeto, sem montar a árvore JSON
+    private String userIdFrom(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("userId".equals(field)) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            // Corpo inválido: segue sem limite por usuário e o orquestrador responde o erro
+        }
+        return null;
+    }
+
+    // Contadores criados uma vez por rota, fora do caminho da requisição
+    private final class RouteMeters {
+
+        private final Counter[] allowed = new Counter[SCOPES.length];
+        private final Counter[] rejected = new Counter[SCOPES.length];
+        private final Counter tooLarge;
+
+        private RouteMeters(String routeId) {
+            for (int scope = 0; scope < SCOPES.length; scope++) {
+                allowed[scope] = counter(routeId, SCOPES[scope], "allowed");
+                rejected[scope] = counter(routeId, SCOPES[scope], "rejected");
+            }
+            tooLarge = counter(routeId, SCOPE_USER, "too_large");
+        }
+
+        private Counter counter(String routeId, String scope, String result) {
+            return Counter.builder("gateway.ratelimit.requests")
+                    .tag("route", routeId)
+                    .tag("scope", scope)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
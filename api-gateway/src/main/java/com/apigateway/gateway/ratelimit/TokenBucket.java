@@ -0,0 +1,41 @@
+package com.apigateway.gateway.ratelimit;
+
+import com.apigateway.gateway.config.RateLimitProperties.Limit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket sem lock na forma GCRA: o estado é um único long com o instante em que o
+// balde estaria cheio de novo. Cada requisição admitida empurra esse instante em um
+// intervalo de reposição; ela é recusada se isso o levar além de uma rajada à frente de agora.
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(Limit limit, long nowNanos) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / limit.refillPerSecond()));
+        this.burstNanos = intervalNanos * limit.capacity();
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    // 0 se a requisição foi admitida; senão, quantos nanos faltam para o próximo token
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Desfaz um tryAcquire admitido (a requisição foi recusada por outro escopo)
+    void refund() {
+        fullAt.addAndGet(-intervalNanos);
+    }
+}
@@ -0,0 +1,90 @@
+package com.frauddetector.auditservice.archive;
+
+import com.frauddetector.events.AnalysisResponseDTO;
+import com.frauddetector.events.AuditLogEvent;
+
+import java.time.Instant;
+
+// Linha corrente de uma varredura. A mesma instância é reutilizada a cada linha:
+// quem precisar guardar os valores deve copiá-los durante a visita
+public final class ArchivedAuditRow {
+
+    private long id;
+    private long timestampMicros;
+    private String status;
+    private String recommendedAction;
+    private double riskScore;
+    private boolean hasTransactionValue;
+    private double transactionValue;
+    private String transactionId;
+    private String userId;
+
+    void set(
+            long id,
+            long timestampMicros,
+            String status,
+            String recommendedAction,
+            double riskScore,
+            boolean hasTransactionValue,
+            double transactionValue,
+            String transactionId,
+            String userId
+    ) {
+        this.id = id;
+        this.timestampMicros = timestampMicros;
+        this.status = status;
+        this.recommendedAction = recommendedAction;
+        this.riskScore = riskScore;
+        this.hasTransactionValue = hasTransactionValue;
+        this.transactionValue = transactionValue;
+        this.transactionId = transactionId;
+        this.userId = userId;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Instant getTimestamp() {
+        return AuditSegmentFormat.fromMicros(timestampMicros);
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getRecommendedAction() {
+        return recommendedAction;
+    }
+
+    public double getRiskScore() {
+        return riskScore;
+    }
+
+    public boolean hasTransactionValue() {
+        return hasTransactionValue;
+    }
+
+    public double getTransactionValue() {
+        return transactionValue;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    // Mesmo evento consumido do Kafka, para reenviar o histórico pelo formato do event-schema
+    public AuditLogEvent toAuditLogEvent() {
+        return new AuditLogEvent(
+                transactionId,
+                userId,
+                hasTransactionValue ? transactionValue : null,
+                status,
+                new AnalysisResponseDTO(riskScore, recommendedAction)
+        );
+    }
+}
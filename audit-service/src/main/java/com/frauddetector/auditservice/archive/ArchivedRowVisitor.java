@@ -0,0 +1,9 @@
+package com.frauddetector.auditservice.archive;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface ArchivedRowVisitor {
+
+    void visit(ArchivedAuditRow row) throws IOException;
+}
@@ -0,0 +1,155 @@
+package com.frauddetector.auditservice.archive;
+
+import com.frauddetector.auditservice.config.AuditArchiveProperties;
+import com.frauddetector.auditservice.repository.AuditLogQueryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+// Arquivo morto de audit_logs: cada partição que sai da retenção vira um segmento colunar
+// (<partição>.seg) em audit.archive.directory. O catálogo guarda só os cabeçalhos; as
+// exportações varrem os segmentos mapeados em ordem cronológica
+@Service
+public class AuditArchive implements InitializingBean {
+
+    private final Logger log = LoggerFactory.getLogger(AuditArchive.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditArchiveProperties properties;
+    private final Path directory;
+    // Ordenado pelo nome, que segue o sufixo da partição (uuuuMMdd ou uuuuMMddHH): ordem cronológica
+    private final ConcurrentSkipListMap<String, AuditSegment> segments = new ConcurrentSkipListMap<>();
+    private final Counter archivedRows;
+    private final Counter scannedRows;
+
+    public AuditArchive(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            AuditArchiveProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.directory = Paths.get(properties.directory());
+        this.archivedRows = Counter.builder("audit.archive.rows")
+                .description("Registros gravados em segmentos do arquivo morto")
+                .register(meterRegistry);
+        this.scannedRows = Counter.builder("audit.archive.scanned")
+                .description("Registros entregues por exportações do arquivo morto")
+                .register(meterRegistry);
+        Gauge.builder("audit.archive.segments", segments, ConcurrentSkipListMap::size)
+                .description("Segmentos no arquivo morto")
+                .register(meterRegistry);
+    }
+
+    // Carrega o índice dos segmentos existentes e apaga sobras de gravações interrompidas
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                if (fileName.startsWith(".") || fileName.endsWith(".tmp")) {
+                    deleteRecursively(file);
+                } else if (fileName.endsWith(AuditSegmentFormat.EXTENSION)) {
+                    try {
+                        AuditSegment segment = AuditSegment.open(file);
+                        segments.put(segment.name(), segment);
+                    } catch (IOException e) {
+                        log.error("<<< Segmento {} ignorado: {}", file, e.getMessage());
+                    }
+                }
+            }
+        }
+        log.info("<<< {} segmentos no arquivo morto em {}", segments.size(), directory.toAbsolutePath());
+    }
+
+    public List<AuditSegment> segments() {
+        return List.copyOf(segments.values());
+    }
+
+    // Lê a partição em ordem de (timestamp, id) com um cursor do driver e grava o segmento.
+    // Se algo falhar, nenhum segmento é criado e a partição continua no banco.
+    // Devolve null para partições vazias
+    public AuditSegment archivePartition(String partition) throws IOException {
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, partition)) {
+            // O Postgres só usa cursor (fetchSize) dentro de uma transação
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                    connection -> {
+                        PreparedStatement statement = connection.prepareStatement("""
+                                SELECT id, status, risk_score, recommended_action, timestamp,
+                                       transaction_id, user_id, transaction_value
+                                FROM %s
+                                ORDER BY timestamp, id
+                                """.formatted(partition));
+                        statement.setFetchSize(properties.fetchSize());
+                        return statement;
+                    },
+                    (RowCallbackHandler) rs -> {
+                        try {
+                            writer.append(AuditLogQueryRepository.ROW_MAPPER.mapRow(rs, 0));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+            ));
+            if (writer.rows() == 0) {
+                return null;
+            }
+            AuditSegment segment = writer.commit();
+            segments.put(segment.name(), segment);
+            archivedRows.increment(segment.rowCount());
+            return segment;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Varre os segmentos que cruzam [from, to) em ordem cronológica; devolve as linhas visitadas
+    public long scan(Instant from, Instant to, String action, String userId, ArchivedRowVisitor visitor)
+            throws IOException {
+        long visited = 0;
+        try {
+            for (AuditSegment segment : segments.values()) {
+                if (segment.overlaps(from, to)) {
+                    visited += segment.scan(from, to, action, userId, visitor);
+                }
+            }
+        } finally {
+            scannedRows.increment(visited);
+        }
+        return visited;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.frauddetector.auditservice.archive;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.frauddetector.auditservice.archive.AuditSegmentFormat.*;
+
+// Segmento imutável de uma partição arquivada. Abrir lê só o cabeçalho (o índice: intervalo
+// de tempo e contagem por ação); as varreduras mapeiam as colunas do arquivo e as percorrem
+// em sequência, sem copiar o segmento para o heap
+public final class AuditSegment {
+
+    private final Path path;
+    private final String name;
+    private final long sizeBytes;
+    private final long rowCount;
+    private final long minMicros;
+    private final long maxMicros;
+    // Posição 0 (null) vazia nos dois dicionários
+    private final String[] statuses;
+    private final String[] actions;
+    private final long[] actionCounts;
+    private final long[] columnOffsets = new long[COLUMNS];
+    private final long[] columnLengths = new long[COLUMNS];
+
+    private AuditSegment(Path path, DataInputStream in) throws IOException {
+        this.path = path;
+        String fileName = path.getFileName().toString();
+        this.name = fileName.substring(0, fileName.length() - EXTENSION.length());
+        this.sizeBytes = Files.size(path);
+
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Formato de segmento desconhecido: " + path);
+        }
+        in.readInt();
+        this.rowCount = in.readLong();
+        this.minMicros = in.readLong();
+        this.maxMicros = in.readLong();
+        this.statuses = readDictionary(in);
+        this.actions = readDictionary(in);
+        this.actionCounts = new long[actions.length];
+        for (int code = 0; code < actions.length; code++) {
+            actionCounts[code] = in.readLong();
+        }
+        for (int column = 0; column < COLUMNS; column++) {
+            columnOffsets[column] = in.readLong();
+            columnLengths[column] = in.readLong();
+            if (columnOffsets[column] + columnLengths[column] > sizeBytes) {
+                throw new IOException("Segmento truncado: " + path);
+            }
+        }
+    }
+
+    public static AuditSegment open(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 4096))) {
+            return new AuditSegment(path, in);
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long sizeBytes() {
+        return sizeBytes;
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    public Instant minTimestamp() {
+        return fromMicros(minMicros);
+    }
+
+    public Instant maxTimestamp() {
+        return fromMicros(maxMicros);
+    }
+
+    // Linhas sem ação (null) não aparecem no mapa
+    public Map<String, Long> actionCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int code = 1; code < actions.length; code++) {
+            counts.put(actions[code], actionCounts[code]);
+        }
+        return counts;
+    }
+
+    public boolean overlaps(Instant from, Instant to) {
+        return maxMicros >= toMicros(from) && minMicros < toMicros(to);
+    }
+
+    // Visita em ordem de (timestamp, id) as linhas em [from, to), filtradas por ação e usuário
+    // (opcionais). Segmentos fora do intervalo ou sem a ação pedida nem são mapeados; dentro
+    // do segmento a varredura para no primeiro timestamp >= to. O userId é comparado direto
+    // nos bytes mapeados e as strings só são decodificadas para as linhas entregues
+    public long scan(Instant from, Instant to, String action, String userId, ArchivedRowVisitor visitor)
+            throws IOException {
+        int actionFilter = 0;
+        if (action != null) {
+            actionFilter = Arrays.asList(actions).indexOf(action);
+            if (actionFilter <= 0 || actionCounts[actionFilter] == 0) {
+                return 0;
+            }
+        }
+        if (rowCount == 0 || !overlaps(from, to)) {
+            return 0;
+        }
+        byte[] userFilter = userId == null ? null : userId.getBytes(StandardCharsets.UTF_8);
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+
+        ByteBuffer[] columns = map();
+        ByteBuffer ids = columns[ID];
+        ByteBuffer timestamps = columns[TIMESTAMP];
+        ByteBuffer statusCodes = columns[STATUS];
+        ByteBuffer actionCodes = columns[ACTION];
+        ByteBuffer riskScores = columns[RISK_SCORE];
+        ByteBuffer transactionValues = columns[TRANSACTION_VALUE];
+        ByteBuffer transactionIds = columns[TRANSACTION_ID];
+        ByteBuffer userIds = columns[USER_ID];
+
+        ArchivedAuditRow row = new ArchivedAuditRow();
+        long id = 0;
+        long micros = 0;
+        long visited = 0;
+        for (long i = 0; i < rowCount; i++) {
+            // Todas as colunas avançam juntas, mesmo nas linhas descartadas
+            id += unzigzag(readVarLong(ids));
+            micros += unzigzag(readVarLong(timestamps));
+            int status = statusCodes.get() & 0xFF;
+            int actionCode = actionCodes.get() & 0xFF;
+            double riskScore = riskScores.getDouble();
+            boolean hasValue = transactionValues.get() != 0;
+            double value = hasValue ? transactionValues.getDouble() : 0.0;
+            int transactionIdLength = (int) readVarLong(transactionIds);
+            int transactionIdStart = skip(transactionIds, transactionIdLength);
+            int userIdLength = (int) readVarLong(userIds);
+            int userIdStart = skip(userIds, userIdLength);
+
+            if (micros < fromMicros) {
+                continue;
+            }
+            if (micros >= toMicros) {
+                break;
+            }
+            if (actionFilter > 0 && actionCode != actionFilter) {
+                continue;
+            }
+            if (userFilter != null && !matches(userIds, userIdStart, userIdLength, userFilter)) {
+                continue;
+            }
+            row.set(id, micros, statuses[status], actions[actionCode], riskScore, hasValue, value,
+                    string(transactionIds, transactionIdStart, transactionIdLength),
+                    string(userIds, userIdStart, userIdLength));
+            visitor.visit(row);
+            visited++;
+        }
+        return visited;
+    }
+
+    // Os mapeamentos continuam válidos depois de fechar o canal e são liberados pelo GC
+    private ByteBuffer[] map() throws IOException {
+        ByteBuffer[] columns = new ByteBuffer[COLUMNS];
+        try (FileChannel channel = FileChannel.open(path)) {
+            for (int column = 0; column < COLUMNS; column++) {
+                columns[column] = channel.map(FileChannel.MapMode.READ_ONLY, columnOffsets[column], columnLengths[column]);
+            }
+        }
+        return columns;
+    }
+
+    private static String[] readDictionary(DataInputStream in) throws IOException {
+        String[] dictionary = new String[in.readInt() + 1];
+        for (int code = 1; code < dictionary.length; code++) {
+            dictionary[code] = in.readUTF();
+        }
+        return dictionary;
+    }
+
+    // Tamanho gravado como bytes + 1 (0 = null); devolve onde começam os bytes
+    private static int skip(ByteBuffer column, int encodedLength) {
+        int start = column.position();
+        if (encodedLength > 1) {
+            column.position(start + encodedLength - 1);
+        }
+        return start;
+    }
+
+    private static boolean matches(ByteBuffer column, int start, int encodedLength, byte[] expected) {
+        if (encodedLength - 1 != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (column.get(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String string(ByteBuffer column, int start, int encodedLength) {
+        if (encodedLength == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[encodedLength - 1];
+        column.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
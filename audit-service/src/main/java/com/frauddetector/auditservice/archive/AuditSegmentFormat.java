@@ -0,0 +1,75 @@
+package com.frauddetector.auditservice.archive;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+// Layout dos segmentos de arquivo morto:
+//   magic, versão, tamanho do cabeçalho
+//   cabeçalho: linhas, menor e maior timestamp, dicionário de status, dicionário de ações
+//              com a contagem de cada uma, posição e tamanho de cada coluna
+//   colunas, uma após a outra, na ordem das constantes abaixo
+// Linhas em ordem de (timestamp, id). IDs e timestamps (microssegundos) são deltas em varint,
+// status e ação são códigos de 1 byte no dicionário (0 = null), scores e valores são doubles
+// brutos e strings têm o tamanho + 1 em varint (0 = null) seguido dos bytes UTF-8
+final class AuditSegmentFormat {
+
+    static final int MAGIC = 0x41554453; // "AUDS"
+    static final int VERSION = 1;
+    static final int PREAMBLE_BYTES = 12;
+    static final String EXTENSION = ".seg";
+
+    static final int ID = 0;
+    static final int TIMESTAMP = 1;
+    static final int STATUS = 2;
+    static final int ACTION = 3;
+    static final int RISK_SCORE = 4;
+    static final int TRANSACTION_VALUE = 5;
+    static final int TRANSACTION_ID = 6;
+    static final int USER_ID = 7;
+    static final int COLUMNS = 8;
+
+    // Códigos de 1 byte, com o 0 reservado para null
+    static final int MAX_DICTIONARY_SIZE = 255;
+
+    private AuditSegmentFormat() {}
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("varint corrompido na posição " + buffer.position());
+    }
+
+    // Deltas negativos (ex.: IDs de blocos da sequência fora de ordem) ficam pequenos em zigzag
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // Mesma precisão do TIMESTAMPTZ do Postgres
+    static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+}
@@ -0,0 +1,201 @@
+package com.frauddetector.auditservice.archive;
+
+import com.frauddetector.auditservice.entity.AuditLog;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.frauddetector.auditservice.archive.AuditSegmentFormat.*;
+
+// Grava um segmento a partir de linhas em ordem de (timestamp, id). Cada coluna vai para
+// um arquivo temporário próprio, então a memória usada não depende do tamanho da partição;
+// no commit as colunas são copiadas (transferTo) para <nome>.seg.tmp depois do cabeçalho,
+// forçadas para o disco e o arquivo é renomeado. Um .seg existente está sempre completo
+public final class AuditSegmentWriter implements Closeable {
+
+    private final String name;
+    private final Path target;
+    private final Path temporary;
+    private final Path workDirectory;
+    private final DataOutputStream[] columns = new DataOutputStream[COLUMNS];
+
+    private final Map<String, Integer> statusCodes = new HashMap<>();
+    private final List<String> statuses = new ArrayList<>();
+    private final Map<String, Integer> actionCodes = new HashMap<>();
+    private final List<String> actions = new ArrayList<>();
+    private final long[] actionCounts = new long[MAX_DICTIONARY_SIZE + 1];
+
+    private long rows;
+    private long previousId;
+    private long previousMicros;
+    private long minMicros;
+    private boolean closed;
+
+    public AuditSegmentWriter(Path directory, String name) throws IOException {
+        Files.createDirectories(directory);
+        this.name = name;
+        this.target = directory.resolve(name + EXTENSION);
+        this.temporary = directory.resolve(name + EXTENSION + ".tmp");
+        this.workDirectory = Files.createTempDirectory(directory, "." + name + "-");
+        for (int column = 0; column < COLUMNS; column++) {
+            columns[column] = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(workDirectory.resolve("column-" + column)), 1 << 16));
+        }
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public void append(AuditLog auditLog) throws IOException {
+        long micros = toMicros(auditLog.getTimestamp());
+        if (rows > 0 && micros < previousMicros) {
+            throw new IllegalArgumentException("Linhas fora da ordem de timestamp no segmento " + name);
+        }
+        if (rows == 0) {
+            minMicros = micros;
+        }
+        writeVarLong(columns[ID], zigzag(auditLog.getId() - previousId));
+        writeVarLong(columns[TIMESTAMP], zigzag(micros - previousMicros));
+        columns[STATUS].writeByte(code(statusCodes, statuses, auditLog.getStatus()));
+        int action = code(actionCodes, actions, auditLog.getRecommendedAction());
+        columns[ACTION].writeByte(action);
+        columns[RISK_SCORE].writeDouble(auditLog.getRiskScore());
+        if (auditLog.getTransactionValue() == null) {
+            columns[TRANSACTION_VALUE].writeByte(0);
+        } else {
+            columns[TRANSACTION_VALUE].writeByte(1);
+            columns[TRANSACTION_VALUE].writeDouble(auditLog.getTransactionValue());
+        }
+        writeString(columns[TRANSACTION_ID], auditLog.getTransactionId());
+        writeString(columns[USER_ID], auditLog.getUserId());
+
+        actionCounts[action]++;
+        previousId = auditLog.getId();
+        previousMicros = micros;
+        rows++;
+    }
+
+    public AuditSegment commit() throws IOException {
+        for (DataOutputStream column : columns) {
+            column.close();
+        }
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream(512);
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeLong(rows);
+        header.writeLong(minMicros);
+        header.writeLong(previousMicros);
+        writeDictionary(header, statuses);
+        writeDictionary(header, actions);
+        for (int code = 0; code <= actions.size(); code++) {
+            header.writeLong(actionCounts[code]);
+        }
+        long offset = PREAMBLE_BYTES + (long) header.size() + 16L * COLUMNS;
+        for (int column = 0; column < COLUMNS; column++) {
+            long length = Files.size(workDirectory.resolve("column-" + column));
+            // Cada coluna é mapeada em um único MappedByteBuffer na leitura
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Coluna " + column + " do segmento " + name + " passa de 2 GiB");
+            }
+            header.writeLong(offset);
+            header.writeLong(length);
+            offset += length;
+        }
+        header.flush();
+
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer preamble = ByteBuffer.allocate(PREAMBLE_BYTES + headerBytes.size())
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(headerBytes.size())
+                    .put(headerBytes.toByteArray())
+                    .flip();
+            while (preamble.hasRemaining()) {
+                out.write(preamble);
+            }
+            for (int column = 0; column < COLUMNS; column++) {
+                try (FileChannel in = FileChannel.open(workDirectory.resolve("column-" + column))) {
+                    long position = 0;
+                    long size = in.size();
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+            // A partição só é removida depois disto: o segmento precisa estar no disco
+            out.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return AuditSegment.open(target);
+    }
+
+    // Descarta os arquivos temporários; sem commit, nenhum .seg é criado ou alterado
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (DataOutputStream column : columns) {
+            column.close();
+        }
+        Files.deleteIfExists(temporary);
+        try (Stream<Path> files = Files.walk(workDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private int code(Map<String, Integer> codes, List<String> dictionary, String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            if (dictionary.size() == MAX_DICTIONARY_SIZE) {
+                throw new IllegalArgumentException("Mais de " + MAX_DICTIONARY_SIZE
+                        + " valores distintos de status ou ação no segmento " + name);
+            }
+            dictionary.add(value);
+            code = dictionary.size();
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    private static void writeDictionary(DataOutputStream header, List<String> dictionary) throws IOException {
+        header.writeInt(dictionary.size());
+        for (String value : dictionary) {
+            header.writeUTF(value);
+        }
+    }
+
+    private static void writeString(DataOutputStream column, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(column, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(column, bytes.length + 1L);
+        column.write(bytes);
+    }
+}
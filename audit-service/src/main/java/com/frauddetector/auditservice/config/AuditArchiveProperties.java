@@ -0,0 +1,12 @@
+package com.frauddetector.auditservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Arquivo morto em segmentos colunares, usado pela retenção ARCHIVE de audit.partitions
+@ConfigurationProperties(prefix = "audit.archive")
+public record AuditArchiveProperties(
+        @DefaultValue("audit-archive") String directory,
+        // Linhas por ida ao banco ao ler a partição (cursor do driver, sem carregá-la inteira)
+        @DefaultValue("10000") int fetchSize
+) {}
@@ -0,0 +1,22 @@
+package com.frauddetector.auditservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Particionamento por tempo da tabela audit_logs e política de retenção
+@ConfigurationProperties(prefix = "audit.partitions")
+public record AuditPartitionProperties(
+        @DefaultValue("DAILY") Granularity granularity,
+        // Quantas partições futuras manter criadas
+        @DefaultValue("3") int premake,
+        @DefaultValue("90d") Duration retention,
+        @DefaultValue("DROP") RetentionAction retentionAction
+) {
+    public enum Granularity { DAILY, HOURLY }
+
+    // DETACH mantém a partição como tabela comum, fora das consultas; ARCHIVE grava a
+    // partição em um segmento do arquivo morto (audit.archive) antes de removê-la
+    public enum RetentionAction { DROP, DETACH, ARCHIVE }
+}
@@ -0,0 +1,16 @@
+package com.frauddetector.auditservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Agregados de decisões por minuto e por hora, mantidos em memória e gravados periodicamente
+@ConfigurationProperties(prefix = "audit.rollups")
+public record AuditRollupProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("7d") Duration minuteRetention,
+        @DefaultValue("400d") Duration hourRetention,
+        // Limite de intervalos por consulta (ex.: 10080 = 7 dias por minuto)
+        @DefaultValue("10080") int maxQueryBuckets
+) {}
@@ -0,0 +1,108 @@
+package com.frauddetector.auditservice.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frauddetector.auditservice.archive.AuditArchive;
+import com.frauddetector.auditservice.dto.ArchiveSegmentDTO;
+import com.frauddetector.events.AuditLogEventCodec;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/audits/archive")
+public class AuditArchiveController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    public enum ExportFormat { NDJSON, EVENTS }
+
+    private final AuditArchive archive;
+    private final ObjectMapper objectMapper;
+
+    public AuditArchiveController(AuditArchive archive, ObjectMapper objectMapper) {
+        this.archive = archive;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/segments")
+    public List<ArchiveSegmentDTO> segments() {
+        return archive.segments().stream()
+                .map(segment -> new ArchiveSegmentDTO(
+                        segment.name(),
+                        segment.rowCount(),
+                        segment.minTimestamp(),
+                        segment.maxTimestamp(),
+                        segment.actionCounts(),
+                        segment.sizeBytes()
+                ))
+                .toList();
+    }
+
+    // Ex.: GET /audits/archive/export?from=2025-01-01T00:00:00Z&to=2025-02-01T00:00:00Z&action=DECLINE
+    // Saída em ordem crescente de (timestamp, id), escrita enquanto os segmentos são varridos.
+    // format=EVENTS devolve frames [tamanho int32][AuditLogEvent binário do event-schema],
+    // prontos para serem reenviados ao tópico de auditoria
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String action,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format
+    ) {
+        if (!from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' deve ser anterior a 'to'");
+        }
+        if (format == ExportFormat.EVENTS) {
+            StreamingResponseBody body = output -> {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+                archive.scan(from, to, action, userId, row -> {
+                    byte[] event = AuditLogEventCodec.encode(row.toAuditLogEvent());
+                    out.writeInt(event.length);
+                    out.write(event);
+                });
+                out.flush();
+            };
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(body);
+        }
+
+        StreamingResponseBody body = output -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(output)) {
+                // O stream da resposta é do servlet; o gerador só o esvazia no fim
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Uma linha por registro, sem o espaço padrão entre valores de raiz
+                json.setRootValueSeparator(null);
+                archive.scan(from, to, action, userId, row -> {
+                    json.writeStartObject();
+                    json.writeNumberField("id", row.getId());
+                    json.writeStringField("timestamp", row.getTimestamp().toString());
+                    json.writeStringField("status", row.getStatus());
+                    json.writeStringField("recommendedAction", row.getRecommendedAction());
+                    json.writeNumberField("riskScore", row.getRiskScore());
+                    json.writeStringField("transactionId", row.getTransactionId());
+                    json.writeStringField("userId", row.getUserId());
+                    if (row.hasTransactionValue()) {
+                        json.writeNumberField("transactionValue", row.getTransactionValue());
+                    } else {
+                        json.writeNullField("transactionValue");
+                    }
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
@@ -0,0 +1,81 @@
+package com.frauddetector.auditservice.controller;
+
+import com.frauddetector.auditservice.dto.AuditLogPageDTO;
+import com.frauddetector.auditservice.entity.AuditLog;
+import com.frauddetector.auditservice.repository.AuditLogQueryRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+@RestController
+@RequestMapping("/audits")
+public class AuditQueryController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final AuditLogQueryRepository queryRepository;
+
+    public AuditQueryController(AuditLogQueryRepository queryRepository) {
+        this.queryRepository = queryRepository;
+    }
+
+    // Ex.: GET /audits?from=2026-10-01T00:00:00Z&to=2026-10-02T00:00:00Z&action=DECLINE&minScore=0.9
+    //      GET /audits?from=...&to=...&userId=user123
+    // A próxima página é pedida repetindo os filtros com cursor=<nextCursor>
+    @GetMapping
+    public ResponseEntity<AuditLogPageDTO> findAudits(
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Double minScore,
+            @RequestParam(required = false) Double maxScore,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        if (!from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' deve ser anterior a 'to'");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        Instant afterTimestamp = null;
+        Long afterId = null;
+        if (cursor != null) {
+            String[] position = decodeCursor(cursor);
+            afterTimestamp = Instant.parse(position[0]);
+            afterId = Long.parseLong(position[1]);
+        }
+
+        List<AuditLog> items = queryRepository.find(
+                from, to, userId, action, minScore, maxScore, afterTimestamp, afterId, pageSize
+        );
+        String nextCursor = items.size() < pageSize ? null : encodeCursor(items.get(items.size() - 1));
+        return ResponseEntity.ok(new AuditLogPageDTO(items, nextCursor));
+    }
+
+    private static String encodeCursor(AuditLog last) {
+        String position = last.getTimestamp() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            Instant.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.frauddetector.auditservice.controller;
+
+import com.frauddetector.auditservice.config.AuditRollupProperties;
+import com.frauddetector.auditservice.dto.DecisionRollupDTO;
+import com.frauddetector.auditservice.repository.DecisionRollupRepository;
+import com.frauddetector.auditservice.service.RollupGranularity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/audits/rollups")
+public class AuditRollupController {
+
+    private final DecisionRollupRepository rollupRepository;
+    private final AuditRollupProperties properties;
+
+    public AuditRollupController(DecisionRollupRepository rollupRepository, AuditRollupProperties properties) {
+        this.rollupRepository = rollupRepository;
+        this.properties = properties;
+    }
+
+    // Ex.: GET /audits/rollups?granularity=MINUTE&from=2026-10-01T12:00:00Z&to=2026-10-01T13:00:00Z
+    // Lê só as tabelas de agregados: o custo depende do intervalo pedido, não do volume de audit_logs
+    @GetMapping
+    public ResponseEntity<List<DecisionRollupDTO>> findRollups(
+            @RequestParam(defaultValue = "MINUTE") RollupGranularity granularity,
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam(required = false) String action
+    ) {
+        if (!from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' deve ser anterior a 'to'");
+        }
+        long buckets = Duration.between(from, to).dividedBy(granularity.unit().getDuration());
+        if (buckets > properties.maxQueryBuckets()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Intervalo grande demais para " + granularity + ": máximo de "
+                            + properties.maxQueryBuckets() + " intervalos");
+        }
+        return ResponseEntity.ok(rollupRepository.find(granularity, from, to, action));
+    }
+}
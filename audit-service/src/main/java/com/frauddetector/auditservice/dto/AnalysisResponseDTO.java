@@ -1,6 +0,0 @@
-package com.frauddetector.auditservice.dto;
-
-public record AnalysisResponseDTO(
-        double riskScore,
-        String recommendedAction
-) {}
@@ -0,0 +1,14 @@
+package com.frauddetector.auditservice.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+// Índice de um segmento do arquivo morto (cabeçalho do arquivo)
+public record ArchiveSegmentDTO(
+        String name,
+        long rowCount,
+        Instant minTimestamp,
+        Instant maxTimestamp,
+        Map<String, Long> actionCounts,
+        long sizeBytes
+) {}
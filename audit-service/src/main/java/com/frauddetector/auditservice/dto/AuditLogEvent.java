@@ -1,6 +0,0 @@
-package com.frauddetector.auditservice.dto;
-
-public record AuditLogEvent(
-        String status,
-        AnalysisResponseDTO riskAnalysis
-) {}
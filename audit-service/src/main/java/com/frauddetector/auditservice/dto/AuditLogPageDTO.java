@@ -0,0 +1,11 @@
+package com.frauddetector.auditservice.dto;
+
+import com.frauddetector.auditservice.entity.AuditLog;
+
+import java.util.List;
+
+// Página de auditorias; nextCursor é nulo quando não há mais resultados
+public record AuditLogPageDTO(
+        List<AuditLog> items,
+        String nextCursor
+) {}
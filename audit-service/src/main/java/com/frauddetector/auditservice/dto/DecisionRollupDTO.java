@@ -0,0 +1,15 @@
+package com.frauddetector.auditservice.dto;
+
+import java.time.Instant;
+
+// Agregado de um intervalo (minuto ou hora) e uma ação recomendada. scoreHistogram[i] conta
+// os scores em [i / 10, (i + 1) / 10); a média do score é riskScoreSum / soma do histograma
+public record DecisionRollupDTO(
+        Instant bucketStart,
+        String recommendedAction,
+        long eventCount,
+        long degradedCount,
+        double riskScoreSum,
+        double transactionValueSum,
+        long[] scoreHistogram
+) {}
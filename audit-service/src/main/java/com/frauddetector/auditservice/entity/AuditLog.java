@@ -12,10 +12,21 @@ import java.time.Instant;
 @Table(name = "audit_logs")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 public class AuditLog {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequência com incremento 50: cada nextval reserva um bloco de IDs, o que
+    // permite inserts em lote (IDENTITY obrigaria um round-trip por linha)
+    public static final String ID_SEQUENCE = "audit_logs_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     private String status;
     private double riskScore;
     private String recommendedAction;
     private Instant timestamp;
+    // Identificadores da transação auditada (nulos em eventos anteriores à v2 do esquema)
+    private String transactionId;
+    private String userId;
+    private Double transactionValue;
 }
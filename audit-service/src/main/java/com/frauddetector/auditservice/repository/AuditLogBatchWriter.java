@@ -0,0 +1,72 @@
+package com.frauddetector.auditservice.repository;
+
+import com.frauddetector.auditservice.entity.AuditLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Grava lotes de AuditLog com um único batch JDBC por transação
+@Repository
+public class AuditLogBatchWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO audit_logs (id, status, risk_score, recommended_action, timestamp,
+                                    transaction_id, user_id, transaction_value)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Cada valor da sequência (INCREMENT BY 50) reserva o bloco (valor - 49 .. valor)
+    private static final String RESERVE_IDS_SQL =
+            "SELECT nextval('" + AuditLog.ID_SEQUENCE + "') FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditLogBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public void insertAll(List<AuditLog> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+        List<Long> ids = reserveIds(auditLogs.size());
+        for (int i = 0; i < auditLogs.size(); i++) {
+            auditLogs.get(i).setId(ids.get(i));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, auditLogs, auditLogs.size(), (ps, auditLog) -> {
+            ps.setLong(1, auditLog.getId());
+            ps.setString(2, auditLog.getStatus());
+            ps.setDouble(3, auditLog.getRiskScore());
+            ps.setString(4, auditLog.getRecommendedAction());
+            ps.setObject(5, auditLog.getTimestamp().atOffset(ZoneOffset.UTC), Types.TIMESTAMP_WITH_TIMEZONE);
+            ps.setString(6, auditLog.getTransactionId());
+            ps.setString(7, auditLog.getUserId());
+            ps.setObject(8, auditLog.getTransactionValue(), Types.DOUBLE);
+        });
+    }
+
+    private List<Long> reserveIds(int count) {
+        int missing = (count + AuditLog.ID_ALLOCATION_SIZE - 1) / AuditLog.ID_ALLOCATION_SIZE;
+        List<Long> ids = new ArrayList<>(missing * AuditLog.ID_ALLOCATION_SIZE);
+        while (missing > 0) {
+            for (long blockEnd : jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, missing)) {
+                // Num banco novo a sequência começa em 1: esse valor daria ids <= 0 e é descartado
+                if (blockEnd < AuditLog.ID_ALLOCATION_SIZE) {
+                    continue;
+                }
+                for (long id = blockEnd - AuditLog.ID_ALLOCATION_SIZE + 1; id <= blockEnd; id++) {
+                    ids.add(id);
+                }
+                missing--;
+            }
+        }
+        return ids;
+    }
+}
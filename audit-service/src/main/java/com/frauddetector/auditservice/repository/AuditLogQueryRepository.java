@@ -0,0 +1,85 @@
+package com.frauddetector.auditservice.repository;
+
+import com.frauddetector.auditservice.entity.AuditLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Consultas de auditoria paginadas por keyset (timestamp, id), do mais recente ao mais antigo.
+// O filtro de tempo é obrigatório para que o Postgres descarte as partições fora do intervalo.
+@Repository
+public class AuditLogQueryRepository {
+
+    // Também usado pelo AuditArchive ao ler as partições que vão para o arquivo morto
+    public static final RowMapper<AuditLog> ROW_MAPPER = (rs, rowNum) -> new AuditLog(
+            rs.getLong("id"),
+            rs.getString("status"),
+            rs.getDouble("risk_score"),
+            rs.getString("recommended_action"),
+            rs.getObject("timestamp", OffsetDateTime.class).toInstant(),
+            rs.getString("transaction_id"),
+            rs.getString("user_id"),
+            rs.getObject("transaction_value", Double.class)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditLogQueryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<AuditLog> find(
+            Instant from,
+            Instant to,
+            String userId,
+            String action,
+            Double minScore,
+            Double maxScore,
+            Instant afterTimestamp,
+            Long afterId,
+            int limit
+    ) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, status, risk_score, recommended_action, timestamp,
+                       transaction_id, user_id, transaction_value
+                FROM audit_logs
+                WHERE timestamp >= ? AND timestamp < ?
+                """);
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.from(from));
+        args.add(Timestamp.from(to));
+
+        if (userId != null) {
+            sql.append(" AND user_id = ?");
+            args.add(userId);
+        }
+        if (action != null) {
+            sql.append(" AND recommended_action = ?");
+            args.add(action);
+        }
+        if (minScore != null) {
+            sql.append(" AND risk_score >= ?");
+            args.add(minScore);
+        }
+        if (maxScore != null) {
+            sql.append(" AND risk_score < ?");
+            args.add(maxScore);
+        }
+        // Continua exatamente depois da última linha da página anterior
+        if (afterTimestamp != null && afterId != null) {
+            sql.append(" AND (timestamp, id) < (?, ?)");
+            args.add(Timestamp.from(afterTimestamp));
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+}
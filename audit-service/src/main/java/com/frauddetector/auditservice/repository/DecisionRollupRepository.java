@@ -0,0 +1,131 @@
+package com.frauddetector.auditservice.repository;
+
+import com.frauddetector.auditservice.dto.DecisionRollupDTO;
+import com.frauddetector.auditservice.service.RollupCell;
+import com.frauddetector.auditservice.service.RollupGranularity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Tabelas de agregados (uma por granularidade), com uma linha por (intervalo, ação). O upsert
+// soma os valores à linha existente, então vários flushes (ou instâncias) compõem o mesmo intervalo
+@Repository
+public class DecisionRollupRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO %1$s AS r (bucket_start, recommended_action, event_count, degraded_count,
+                                   risk_score_sum, transaction_value_sum, score_histogram)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (bucket_start, recommended_action) DO UPDATE SET
+                event_count = r.event_count + EXCLUDED.event_count,
+                degraded_count = r.degraded_count + EXCLUDED.degraded_count,
+                risk_score_sum = r.risk_score_sum + EXCLUDED.risk_score_sum,
+                transaction_value_sum = r.transaction_value_sum + EXCLUDED.transaction_value_sum,
+                score_histogram = ARRAY(
+                    SELECT a + b
+                    FROM unnest(r.score_histogram, EXCLUDED.score_histogram) WITH ORDINALITY AS h(a, b, i)
+                    ORDER BY i
+                )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DecisionRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void createSchema() {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            jdbcTemplate.execute("""
+                    CREATE TABLE IF NOT EXISTS %s (
+                        bucket_start          TIMESTAMPTZ      NOT NULL,
+                        recommended_action    VARCHAR(32)      NOT NULL,
+                        event_count           BIGINT           NOT NULL,
+                        degraded_count        BIGINT           NOT NULL,
+                        risk_score_sum        DOUBLE PRECISION NOT NULL,
+                        transaction_value_sum DOUBLE PRECISION NOT NULL,
+                        score_histogram       BIGINT[]         NOT NULL,
+                        PRIMARY KEY (bucket_start, recommended_action)
+                    )
+                    """.formatted(granularity.table()));
+        }
+    }
+
+    @Transactional
+    public void upsert(RollupGranularity granularity, Collection<RollupCell> cells) {
+        if (cells.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL.formatted(granularity.table()), cells, cells.size(), (ps, cell) -> {
+            ps.setObject(1, cell.bucketStart().atOffset(ZoneOffset.UTC), Types.TIMESTAMP_WITH_TIMEZONE);
+            ps.setString(2, cell.recommendedAction());
+            ps.setLong(3, cell.eventCount());
+            ps.setLong(4, cell.degradedCount());
+            ps.setDouble(5, cell.riskScoreSum());
+            ps.setDouble(6, cell.transactionValueSum());
+            ps.setArray(7, ps.getConnection().createArrayOf("bigint", boxed(cell.scoreHistogram())));
+        });
+    }
+
+    public List<DecisionRollupDTO> find(RollupGranularity granularity, Instant from, Instant to, String action) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT bucket_start, recommended_action, event_count, degraded_count,
+                       risk_score_sum, transaction_value_sum, score_histogram
+                FROM %s
+                WHERE bucket_start >= ? AND bucket_start < ?
+                """.formatted(granularity.table()));
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.from(from));
+        args.add(Timestamp.from(to));
+        if (action != null) {
+            sql.append(" AND recommended_action = ?");
+            args.add(action);
+        }
+        sql.append(" ORDER BY bucket_start, recommended_action");
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new DecisionRollupDTO(
+                rs.getObject("bucket_start", OffsetDateTime.class).toInstant(),
+                rs.getString("recommended_action"),
+                rs.getLong("event_count"),
+                rs.getLong("degraded_count"),
+                rs.getDouble("risk_score_sum"),
+                rs.getDouble("transaction_value_sum"),
+                histogram(rs)
+        ), args.toArray());
+    }
+
+    public int deleteBefore(RollupGranularity granularity, Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM " + granularity.table() + " WHERE bucket_start < ?",
+                Timestamp.from(cutoff));
+    }
+
+    private static Long[] boxed(long[] values) {
+        Long[] boxed = new Long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return boxed;
+    }
+
+    private static long[] histogram(ResultSet rs) throws SQLException {
+        Array array = rs.getArray("score_histogram");
+        Long[] values = (Long[]) array.getArray();
+        long[] histogram = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            histogram[i] = values[i];
+        }
+        return histogram;
+    }
+}
@@ -1,37 +1,133 @@
 package com.frauddetector.auditservice.service;
 
-import com.frauddetector.auditservice.dto.AuditLogEvent;
 import com.frauddetector.auditservice.entity.AuditLog;
-import com.frauddetector.auditservice.repository.AuditLogRepository;
+import com.frauddetector.auditservice.repository.AuditLogBatchWriter;
+import com.frauddetector.events.AuditLogEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.ReceiverContext;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class AuditConsumer {
 
     private final Logger log = LoggerFactory.getLogger(AuditConsumer.class);
 
-    private final AuditLogRepository repository;
+    private final AuditLogBatchWriter writer;
+    private final DecisionRollupAggregator rollups;
+    private final ObservationRegistry observationRegistry;
+    private final DistributionSummary batchSize;
+    private final Timer batchWriteTime;
+    private final Timer consumerLag;
+    private final Counter undecodableEvents;
 
-    public AuditConsumer(AuditLogRepository repository) {
-        this.repository = repository;
+    public AuditConsumer(
+            AuditLogBatchWriter writer,
+            DecisionRollupAggregator rollups,
+            MeterRegistry meterRegistry,
+            ObservationRegistry observationRegistry
+    ) {
+        this.writer = writer;
+        this.rollups = rollups;
+        this.observationRegistry = observationRegistry;
+        this.batchSize = DistributionSummary.builder("audit.consumer.batch.size")
+                .description("Eventos por lote consumido")
+                .register(meterRegistry);
+        this.batchWriteTime = Timer.builder("audit.consumer.batch.write")
+                .description("Tempo de gravação de um lote no banco")
+                .register(meterRegistry);
+        this.consumerLag = Timer.builder("audit.consumer.lag")
+                .description("Tempo entre a produção do evento e o commit do lote que o contém")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.undecodableEvents = Counter.builder("audit.consumer.undecodable")
+                .description("Eventos descartados por não decodificarem no formato do event-schema")
+                .register(meterRegistry);
     }
 
-    @KafkaListener(topics = "fraud_analysis_events", groupId = "audit_group")
-    public void consume(AuditLogEvent event) {
-        log.info("<<< Evento de auditoria recebido: {}", event);
+    // Recebe todos os registros de um poll; o offset só é confirmado depois que o
+    // método retorna, ou seja, depois do commit da transação com o lote inteiro.
+    // Com spring.kafka.listener.concurrency > 1 há um container por thread, cada partição
+    // fica com uma única thread e os eventos de um usuário (chave) são gravados em ordem
+    @KafkaListener(topics = "fraud_analysis_events", groupId = "audit_group", batch = "true")
+    public void consume(List<ConsumerRecord<String, AuditLogEvent>> records) {
+        // Listeners em lote não são observados pelo container: cada registro abre uma
+        // observação filha do trace propagado nos headers pelo orchestrator
+        List<Observation> observations = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, AuditLogEvent> record : records) {
+            observations.add(observe(record).start());
+        }
 
-        AuditLog auditLog = new AuditLog();
-        auditLog.setStatus(event.status());
-        auditLog.setRiskScore(event.riskAnalysis().riskScore());
-        auditLog.setRecommendedAction(event.riskAnalysis().recommendedAction());
-        auditLog.setTimestamp(Instant.now());
+        try {
+            Instant now = Instant.now();
+            List<AuditLog> auditLogs = new ArrayList<>(records.size());
+            for (ConsumerRecord<String, AuditLogEvent> record : records) {
+                AuditLogEvent event = record.value();
+                if (event == null) {
+                    // Falha do deserializer (ex.: evento JSON anterior ao formato binário)
+                    undecodableEvents.increment();
+                    continue;
+                }
+                AuditLog auditLog = new AuditLog();
+                auditLog.setStatus(event.status());
+                auditLog.setRiskScore(event.riskAnalysis().riskScore());
+                auditLog.setRecommendedAction(event.riskAnalysis().recommendedAction());
+                auditLog.setTimestamp(now);
+                auditLog.setTransactionId(event.transactionId());
+                auditLog.setUserId(event.userId());
+                auditLog.setTransactionValue(event.value());
+                auditLogs.add(auditLog);
+            }
 
-        repository.save(auditLog);
-        log.info("<<< Evento salvo no banco de dados de auditoria.");
+            batchWriteTime.record(() -> writer.insertAll(auditLogs));
+            // Agregados só depois do commit: um lote que falha é reentregue e contado uma vez
+            rollups.record(auditLogs);
+            recordLag(records);
+        } catch (RuntimeException e) {
+            observations.forEach(observation -> observation.error(e));
+            throw e;
+        } finally {
+            observations.forEach(Observation::stop);
+        }
+
+        batchSize.record(records.size());
+        log.debug("<<< Lote de {} eventos de auditoria salvo no banco de dados.", records.size());
+    }
+
+    private Observation observe(ConsumerRecord<String, AuditLogEvent> record) {
+        ReceiverContext<ConsumerRecord<String, AuditLogEvent>> context = new ReceiverContext<>((carrier, key) -> {
+            Header header = carrier.headers().lastHeader(key);
+            return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+        });
+        context.setCarrier(record);
+        context.setRemoteServiceName("kafka");
+        return Observation.createNotStarted("audit.persist", () -> context, observationRegistry)
+                .contextualName(record.topic() + " persist")
+                .lowCardinalityKeyValue("topic", record.topic());
+    }
+
+    // Lag de ponta a ponta: timestamp do produtor até o commit no banco
+    private void recordLag(List<ConsumerRecord<String, AuditLogEvent>> records) {
+        long committedAt = System.currentTimeMillis();
+        for (ConsumerRecord<String, AuditLogEvent> record : records) {
+            if (record.timestamp() >= 0) {
+                consumerLag.record(Duration.ofMillis(Math.max(0, committedAt - record.timestamp())));
+            }
+        }
     }
 }
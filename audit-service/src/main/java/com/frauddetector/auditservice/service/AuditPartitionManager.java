@@ -0,0 +1,262 @@
+package com.frauddetector.auditservice.service;
+
+import com.frauddetector.auditservice.archive.AuditArchive;
+import com.frauddetector.auditservice.archive.AuditSegment;
+import com.frauddetector.auditservice.config.AuditPartitionProperties;
+import com.frauddetector.auditservice.entity.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Cria e mantém a tabela audit_logs particionada por faixa de tempo (dia ou hora),
+// cria partições futuras e remove as que passaram do período de retenção.
+@Service
+public class AuditPartitionManager implements InitializingBean {
+
+    private static final String TABLE = "audit_logs";
+    private static final String LEGACY_TABLE = "audit_logs_legacy";
+
+    private static final DateTimeFormatter DAILY_SUFFIX = DateTimeFormatter.ofPattern("uuuuMMdd");
+    private static final DateTimeFormatter HOURLY_SUFFIX = DateTimeFormatter.ofPattern("uuuuMMddHH");
+
+    private final Logger log = LoggerFactory.getLogger(AuditPartitionManager.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditPartitionProperties properties;
+    private final AuditArchive archive;
+
+    public AuditPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            AuditPartitionProperties properties,
+            AuditArchive archive
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.archive = archive;
+    }
+
+    // Roda na inicialização do bean, antes de os listeners do Kafka começarem a gravar
+    @Override
+    public void afterPropertiesSet() {
+        transactionTemplate.executeWithoutResult(status -> {
+            boolean migrated = renameLegacyTable();
+            createSchema();
+            ensurePartitions(migrated ? retentionCutoff() : Instant.now());
+            if (migrated) {
+                copyLegacyRows();
+            }
+        });
+        applyRetention();
+    }
+
+    // Manutenção periódica: partições à frente e retenção
+    @Scheduled(
+            initialDelayString = "${audit.partitions.maintenance-interval:PT1H}",
+            fixedDelayString = "${audit.partitions.maintenance-interval:PT1H}"
+    )
+    public void maintain() {
+        ensurePartitions(Instant.now());
+        applyRetention();
+    }
+
+    // Versões anteriores criavam audit_logs como tabela comum (ddl-auto=update)
+    private boolean renameLegacyTable() {
+        String kind = jdbcTemplate.query(
+                "SELECT relkind::text FROM pg_class WHERE relname = ? AND relnamespace = 'public'::regnamespace",
+                rs -> rs.next() ? rs.getString(1) : null,
+                TABLE
+        );
+        if (!"r".equals(kind)) {
+            return false;
+        }
+        log.warn("<<< Tabela {} não particionada encontrada; renomeando para {}", TABLE, LEGACY_TABLE);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_TABLE);
+        return true;
+    }
+
+    private void createSchema() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + AuditLog.ID_SEQUENCE
+                + " INCREMENT BY " + AuditLog.ID_ALLOCATION_SIZE);
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS audit_logs (
+                    id                 BIGINT           NOT NULL,
+                    status             VARCHAR(255),
+                    risk_score         DOUBLE PRECISION NOT NULL,
+                    recommended_action VARCHAR(255),
+                    timestamp          TIMESTAMPTZ      NOT NULL,
+                    transaction_id     VARCHAR(64),
+                    user_id            VARCHAR(255),
+                    transaction_value  DOUBLE PRECISION,
+                    CONSTRAINT audit_logs_partitioned_pkey PRIMARY KEY (timestamp, id)
+                ) PARTITION BY RANGE (timestamp)
+                """);
+        // Colunas da v2 do evento em tabelas criadas antes dela (propaga para as partições)
+        jdbcTemplate.execute("ALTER TABLE audit_logs "
+                + "ADD COLUMN IF NOT EXISTS transaction_id VARCHAR(64), "
+                + "ADD COLUMN IF NOT EXISTS user_id VARCHAR(255), "
+                + "ADD COLUMN IF NOT EXISTS transaction_value DOUBLE PRECISION");
+        // BRIN: índice mínimo para varreduras por faixa de tempo (os dados chegam em ordem)
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS audit_logs_timestamp_brin "
+                + "ON audit_logs USING brin (timestamp)");
+        // B-tree para consultas por ação, na mesma ordem da paginação por keyset
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS audit_logs_action_timestamp_idx "
+                + "ON audit_logs (recommended_action, timestamp DESC, id DESC)");
+        // Histórico de um usuário, também na ordem da paginação
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS audit_logs_user_timestamp_idx "
+                + "ON audit_logs (user_id, timestamp DESC, id DESC)");
+    }
+
+    // Compara com os intervalos das partições existentes, não com os nomes: depois de uma troca
+    // de granularidade (ex.: DAILY -> HOURLY) as partições antigas continuam cobrindo parte da
+    // faixa, e só os trechos livres ganham partição (por hora, que cabe em qualquer lacuna)
+    private void ensurePartitions(Instant from) {
+        ChronoUnit unit = partitionUnit();
+        Instant start = from.truncatedTo(unit);
+        Instant last = Instant.now().truncatedTo(unit).plus(properties.premake(), unit);
+        List<PartitionRange> existing = partitionRanges();
+
+        for (Instant current = start; !current.isAfter(last); current = current.plus(1, unit)) {
+            Instant end = current.plus(1, unit);
+            if (!overlaps(existing, current, end)) {
+                createPartition(partitionName(current, unit), current, end);
+                continue;
+            }
+            for (Instant hour = current; hour.isBefore(end); hour = hour.plus(1, ChronoUnit.HOURS)) {
+                Instant hourEnd = hour.plus(1, ChronoUnit.HOURS);
+                if (!overlaps(existing, hour, hourEnd)) {
+                    createPartition(partitionName(hour, ChronoUnit.HOURS), hour, hourEnd);
+                }
+            }
+        }
+    }
+
+    private void createPartition(String name, Instant start, Instant end) {
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name
+                    + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + start + "') TO ('" + end + "')");
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Não foi possível criar a partição " + name + " de " + TABLE
+                    + " para [" + start + ", " + end + "). Verifique as partições existentes com "
+                    + "SELECT relname, pg_get_expr(relpartbound, oid) FROM pg_class WHERE relispartition", e);
+        }
+    }
+
+    private static boolean overlaps(List<PartitionRange> ranges, Instant start, Instant end) {
+        for (PartitionRange range : ranges) {
+            if (range.start().isBefore(end) && start.isBefore(range.end())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void copyLegacyRows() {
+        int copied = jdbcTemplate.update("""
+                INSERT INTO audit_logs (id, status, risk_score, recommended_action, timestamp)
+                SELECT id, status, risk_score, recommended_action, timestamp
+                FROM audit_logs_legacy
+                WHERE timestamp >= ?
+                ON CONFLICT DO NOTHING
+                """, Timestamp.from(retentionCutoff()));
+        // A sequência precisa começar depois dos IDs gerados pela antiga coluna IDENTITY
+        jdbcTemplate.queryForObject("SELECT setval('" + AuditLog.ID_SEQUENCE + "', "
+                + "(SELECT COALESCE(MAX(id), 0) FROM " + LEGACY_TABLE + ") + "
+                + AuditLog.ID_ALLOCATION_SIZE + ")", Long.class);
+        log.warn("<<< {} registros copiados de {} para a tabela particionada", copied, LEGACY_TABLE);
+    }
+
+    private void applyRetention() {
+        Instant cutoff = retentionCutoff();
+
+        for (PartitionRange range : partitionRanges()) {
+            String partition = range.name();
+            // Só remove partições cujo intervalo inteiro ficou antes do corte
+            if (range.end().isAfter(cutoff)) {
+                continue;
+            }
+            if (properties.retentionAction() == AuditPartitionProperties.RetentionAction.ARCHIVE
+                    && !archivePartition(partition)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+            if (properties.retentionAction() != AuditPartitionProperties.RetentionAction.DETACH) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            }
+            log.info("<<< Partição {} removida pela retenção ({})", partition, properties.retentionAction());
+        }
+    }
+
+    // A partição só é removida depois que o segmento está no disco. Se a remoção não acontecer
+    // (ex.: queda logo depois), a próxima manutenção grava o mesmo segmento de novo
+    private boolean archivePartition(String partition) {
+        try {
+            AuditSegment segment = archive.archivePartition(partition);
+            if (segment != null) {
+                log.info("<<< Partição {} arquivada em {} ({} registros, {} bytes)",
+                        partition, segment.path(), segment.rowCount(), segment.sizeBytes());
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("<<< Falha ao arquivar a partição {}; ela fica no banco até a próxima manutenção", partition, e);
+            return false;
+        }
+    }
+
+    // Intervalos das partições de faixa, lidos do limite de cada uma (relpartbound). O texto de
+    // pg_get_expr é convertido de volta na mesma sessão, então o fuso da sessão não importa.
+    // Partições DEFAULT ou com MINVALUE/MAXVALUE ficam de fora
+    private List<PartitionRange> partitionRanges() {
+        return jdbcTemplate.query("""
+                SELECT name, bounds[1]::timestamptz AS range_start, bounds[2]::timestamptz AS range_end
+                FROM (
+                    SELECT child.relname AS name,
+                           regexp_match(pg_get_expr(child.relpartbound, child.oid),
+                                        'FROM \\(''([^'']+)''\\) TO \\(''([^'']+)''\\)') AS bounds
+                    FROM pg_inherits
+                    JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                    JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+                    WHERE parent.relname = ?
+                ) partitions
+                WHERE bounds IS NOT NULL
+                ORDER BY range_start
+                """, (rs, rowNum) -> new PartitionRange(
+                        rs.getString("name"),
+                        rs.getTimestamp("range_start").toInstant(),
+                        rs.getTimestamp("range_end").toInstant()
+                ), TABLE);
+    }
+
+    private static String partitionName(Instant start, ChronoUnit unit) {
+        DateTimeFormatter suffix = unit == ChronoUnit.HOURS ? HOURLY_SUFFIX : DAILY_SUFFIX;
+        return TABLE + "_p" + suffix.format(start.atOffset(ZoneOffset.UTC));
+    }
+
+    private Instant retentionCutoff() {
+        return Instant.now().minus(properties.retention());
+    }
+
+    private ChronoUnit partitionUnit() {
+        return properties.granularity() == AuditPartitionProperties.Granularity.HOURLY
+                ? ChronoUnit.HOURS
+                : ChronoUnit.DAYS;
+    }
+
+    private record PartitionRange(String name, Instant start, Instant end) {}
+}
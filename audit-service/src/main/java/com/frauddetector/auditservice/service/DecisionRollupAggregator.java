@@ -0,0 +1,140 @@
+package com.frauddetector.auditservice.service;
+
+import com.frauddetector.auditservice.config.AuditRollupProperties;
+import com.frauddetector.auditservice.entity.AuditLog;
+import com.frauddetector.auditservice.repository.DecisionRollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Agregados de decisões por minuto e por hora, calculados à medida que os lotes chegam ao
+// AuditConsumer. Cada lote é agregado localmente e somado aos agregados pendentes sob um
+// lock curto; o flush troca os pendentes por mapas vazios e grava tudo com upserts aditivos.
+// Os agregados ainda não gravados se perdem se o processo morrer (até um flush-interval)
+@Service
+public class DecisionRollupAggregator implements InitializingBean, DisposableBean {
+
+    private static final String DEGRADED_STATUS = "ANALYSIS_DEGRADED";
+    private static final String UNKNOWN_ACTION = "UNKNOWN";
+
+    private final Logger log = LoggerFactory.getLogger(DecisionRollupAggregator.class);
+
+    private final DecisionRollupRepository repository;
+    private final AuditRollupProperties properties;
+    private final Counter flushFailures;
+
+    private final Object lock = new Object();
+    private Map<RollupGranularity, Map<RollupKey, RollupCell>> pending = emptyCells();
+
+    public DecisionRollupAggregator(
+            DecisionRollupRepository repository,
+            AuditRollupProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.properties = properties;
+        this.flushFailures = Counter.builder("audit.rollups.flush.failures")
+                .description("Flushes de agregados que falharam e foram devolvidos aos pendentes")
+                .register(meterRegistry);
+    }
+
+    // Cria as tabelas antes de os listeners do Kafka começarem a consumir
+    @Override
+    public void afterPropertiesSet() {
+        repository.createSchema();
+    }
+
+    // Chamado com o lote já gravado em audit_logs, com o mesmo timestamp das linhas
+    public void record(List<AuditLog> auditLogs) {
+        if (!properties.enabled() || auditLogs.isEmpty()) {
+            return;
+        }
+        Map<RollupGranularity, Map<RollupKey, RollupCell>> batch = emptyCells();
+        for (AuditLog auditLog : auditLogs) {
+            String action = auditLog.getRecommendedAction() == null ? UNKNOWN_ACTION : auditLog.getRecommendedAction();
+            boolean degraded = DEGRADED_STATUS.equals(auditLog.getStatus());
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                Instant bucketStart = granularity.bucketStart(auditLog.getTimestamp());
+                batch.get(granularity)
+                        .computeIfAbsent(new RollupKey(bucketStart, action), key -> new RollupCell(bucketStart, action))
+                        .add(degraded, auditLog.getRiskScore(), auditLog.getTransactionValue());
+            }
+        }
+        synchronized (lock) {
+            batch.forEach((granularity, cells) -> merge(pending.get(granularity), cells));
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${audit.rollups.flush-interval:PT5S}",
+            fixedDelayString = "${audit.rollups.flush-interval:PT5S}"
+    )
+    public void flush() {
+        Map<RollupGranularity, Map<RollupKey, RollupCell>> flushing;
+        synchronized (lock) {
+            flushing = pending;
+            pending = emptyCells();
+        }
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Map<RollupKey, RollupCell> cells = flushing.get(granularity);
+            try {
+                repository.upsert(granularity, cells.values());
+            } catch (RuntimeException e) {
+                // Cada granularidade é gravada em uma transação: só a que falhou volta aos
+                // pendentes, senão o upsert aditivo contaria duas vezes a que já foi gravada
+                flushFailures.increment();
+                log.warn("<<< Falha ao gravar os agregados por {}: {}", granularity, e.getMessage());
+                synchronized (lock) {
+                    merge(pending.get(granularity), cells);
+                }
+            }
+        }
+    }
+
+    // Mesmo intervalo de manutenção das partições de audit_logs
+    @Scheduled(
+            initialDelayString = "${audit.partitions.maintenance-interval:PT1H}",
+            fixedDelayString = "${audit.partitions.maintenance-interval:PT1H}"
+    )
+    public void applyRetention() {
+        Instant now = Instant.now();
+        repository.deleteBefore(RollupGranularity.MINUTE, now.minus(properties.minuteRetention()));
+        repository.deleteBefore(RollupGranularity.HOUR, now.minus(properties.hourRetention()));
+    }
+
+    // Os listeners já pararam quando os beans são destruídos: grava o que restou
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private static void merge(Map<RollupKey, RollupCell> target, Map<RollupKey, RollupCell> source) {
+        source.forEach((key, cell) -> {
+            RollupCell existing = target.putIfAbsent(key, cell);
+            if (existing != null) {
+                existing.merge(cell);
+            }
+        });
+    }
+
+    private static Map<RollupGranularity, Map<RollupKey, RollupCell>> emptyCells() {
+        Map<RollupGranularity, Map<RollupKey, RollupCell>> cells = new EnumMap<>(RollupGranularity.class);
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            cells.put(granularity, new HashMap<>());
+        }
+        return cells;
+    }
+
+    private record RollupKey(Instant bucketStart, String recommendedAction) {}
+}
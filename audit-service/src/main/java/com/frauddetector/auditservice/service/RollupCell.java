@@ -0,0 +1,75 @@
+package com.frauddetector.auditservice.service;
+
+import java.time.Instant;
+
+// Agregado de um intervalo e uma ação: contagens, somas e histograma do score em faixas
+// de 0.1. Scores fora de [0, 1] (decisões degradadas usam -1) ficam fora das somas do score
+public final class RollupCell {
+
+    public static final int HISTOGRAM_BUCKETS = 10;
+
+    final Instant bucketStart;
+    final String recommendedAction;
+    long eventCount;
+    long degradedCount;
+    double riskScoreSum;
+    double transactionValueSum;
+    final long[] scoreHistogram = new long[HISTOGRAM_BUCKETS];
+
+    RollupCell(Instant bucketStart, String recommendedAction) {
+        this.bucketStart = bucketStart;
+        this.recommendedAction = recommendedAction;
+    }
+
+    public Instant bucketStart() {
+        return bucketStart;
+    }
+
+    public String recommendedAction() {
+        return recommendedAction;
+    }
+
+    public long eventCount() {
+        return eventCount;
+    }
+
+    public long degradedCount() {
+        return degradedCount;
+    }
+
+    public double riskScoreSum() {
+        return riskScoreSum;
+    }
+
+    public double transactionValueSum() {
+        return transactionValueSum;
+    }
+
+    public long[] scoreHistogram() {
+        return scoreHistogram;
+    }
+
+    void add(boolean degraded, double riskScore, Double transactionValue) {
+        eventCount++;
+        if (degraded) {
+            degradedCount++;
+        }
+        if (riskScore >= 0 && riskScore <= 1) {
+            riskScoreSum += riskScore;
+            scoreHistogram[Math.min((int) (riskScore * HISTOGRAM_BUCKETS), HISTOGRAM_BUCKETS - 1)]++;
+        }
+        if (transactionValue != null) {
+            transactionValueSum += transactionValue;
+        }
+    }
+
+    void merge(RollupCell other) {
+        eventCount += other.eventCount;
+        degradedCount += other.degradedCount;
+        riskScoreSum += other.riskScoreSum;
+        transactionValueSum += other.transactionValueSum;
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            scoreHistogram[i] += other.scoreHistogram[i];
+        }
+    }
+}
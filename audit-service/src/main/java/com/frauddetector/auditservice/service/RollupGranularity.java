@@ -0,0 +1,31 @@
+package com.frauddetector.auditservice.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+// Granularidades dos agregados; cada uma tem sua própria tabela
+public enum RollupGranularity {
+
+    MINUTE(ChronoUnit.MINUTES, "audit_rollups_minute"),
+    HOUR(ChronoUnit.HOURS, "audit_rollups_hour");
+
+    private final ChronoUnit unit;
+    private final String table;
+
+    RollupGranularity(ChronoUnit unit, String table) {
+        this.unit = unit;
+        this.table = table;
+    }
+
+    public ChronoUnit unit() {
+        return unit;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    public Instant bucketStart(Instant timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+}
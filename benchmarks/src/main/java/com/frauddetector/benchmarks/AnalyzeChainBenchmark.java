@@ -0,0 +1,192 @@
+package com.frauddetector.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frauddetector.events.AuditLogEvent;
+import com.frauddetector.events.AuditLogEventSerializer;
+import com.frauddetector.orchestrator.config.AuditPublisherProperties;
+import com.frauddetector.orchestrator.config.BatchProperties;
+import com.frauddetector.orchestrator.config.DecisionJournalProperties;
+import com.frauddetector.orchestrator.config.IdempotencyProperties;
+import com.frauddetector.orchestrator.config.ProfileCacheProperties;
+import com.frauddetector.orchestrator.config.ResilienceConfig;
+import com.frauddetector.orchestrator.config.ResilienceProperties;
+import com.frauddetector.orchestrator.config.TransactionEventProperties;
+import com.frauddetector.orchestrator.config.VelocityProperties;
+import com.frauddetector.orchestrator.controller.FraudController;
+import com.frauddetector.orchestrator.dto.TransactionDTO;
+import com.frauddetector.orchestrator.dto.TransactionEvent;
+import com.frauddetector.orchestrator.idempotency.MemoryIdempotencyStore;
+import com.frauddetector.orchestrator.journal.DecisionJournal;
+import com.frauddetector.orchestrator.metrics.AnalysisMetrics;
+import com.frauddetector.orchestrator.resilience.DownstreamPolicy;
+import com.frauddetector.orchestrator.scoring.RemoteScoringEngine;
+import com.frauddetector.orchestrator.service.FraudAnalysisService;
+import com.frauddetector.orchestrator.service.KafkaProducerService;
+import com.frauddetector.orchestrator.service.TransactionEventPublisher;
+import com.frauddetector.orchestrator.service.UserProfileCache;
+import com.frauddetector.orchestrator.velocity.VelocityTracker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// FraudController.analyzeFraud de ponta a ponta: cache de perfis, políticas de resiliência,
+// motor remoto e publicação dos eventos. Perfil e inferência respondem por WebClients com
+// ExchangeFunction fixa, e o Kafka é um MockProducer
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyzeChainBenchmark {
+
+    private static final String PROFILE_JSON = """
+            {"userId":"user123","transactionCount":127,"averageAmount":75.5,"lastTransactionCountry":"BRA"}""";
+    private static final String SCORE_JSON = """
+            {"riskScore":0.42,"recommendedAction":"REVIEW"}""";
+
+    // false: o perfil é removido do cache antes de cada análise e vem do WebClient
+    @Param({"true", "false"})
+    public boolean profileCached;
+
+    // true: cada análise leva uma Idempotency-Key nova (custo do store, sem reaproveitamento)
+    @Param({"false", "true"})
+    public boolean idempotencyKey;
+
+    private final AtomicLong keySequence = new AtomicLong();
+
+    private final TransactionDTO transaction = new TransactionDTO("user123", 500.0, "BRA", null);
+
+    private UserProfileCache profileCache;
+    private FraudController controller;
+    private KafkaProducerService auditPublisher;
+    private TransactionEventPublisher transactionPublisher;
+    private DecisionJournal decisionJournal;
+    private MockProducer<String, AuditLogEvent> auditProducer;
+    private MockProducer<String, TransactionEvent> transactionProducer;
+    private Path spillDirectory;
+
+    @Setup
+    public void setup() throws IOException {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = Fixtures.objectMapper();
+        spillDirectory = Files.createTempDirectory("benchmark-spill");
+
+        ResilienceProperties resilience = Fixtures.bind("orchestrator.resilience", ResilienceProperties.class, Map.of());
+        ResilienceConfig resilienceConfig = new ResilienceConfig();
+        CircuitBreakerRegistry circuitBreakers = resilienceConfig.circuitBreakerRegistry(meterRegistry);
+        DownstreamPolicy profilePolicy = resilienceConfig.profilePolicy(resilience, circuitBreakers, meterRegistry);
+        DownstreamPolicy inferencePolicy = resilienceConfig.inferencePolicy(resilience, circuitBreakers, meterRegistry);
+
+        profileCache = new UserProfileCache(
+                Fixtures.stubWebClient(PROFILE_JSON),
+                profilePolicy,
+                Fixtures.bind("orchestrator.profile-cache", ProfileCacheProperties.class, Map.of()),
+                meterRegistry
+        );
+        AnalysisMetrics analysisMetrics = new AnalysisMetrics(meterRegistry);
+        decisionJournal = new DecisionJournal(
+                Fixtures.bind("orchestrator.journal", DecisionJournalProperties.class,
+                        Map.of("orchestrator.journal.directory", spillDirectory.toString())),
+                meterRegistry
+        );
+        FraudAnalysisService analysisService = new FraudAnalysisService(
+                profileCache,
+                new RemoteScoringEngine(Fixtures.stubWebClient(SCORE_JSON), inferencePolicy),
+                resilience,
+                meterRegistry,
+                analysisMetrics,
+                decisionJournal,
+                new VelocityTracker(Fixtures.bind("orchestrator.velocity", VelocityProperties.class, Map.of()), meterRegistry)
+        );
+
+        auditProducer = new MockProducer<>(true, new StringSerializer(), new AuditLogEventSerializer());
+        auditPublisher = new KafkaProducerService(
+                new KafkaTemplate<>(new MockProducerFactory<>(() -> auditProducer)),
+                Fixtures.bind("orchestrator.audit", AuditPublisherProperties.class,
+                        Map.of("orchestrator.audit.spill-directory", spillDirectory.toString())),
+                objectMapper,
+                meterRegistry,
+                ObservationRegistry.NOOP
+        );
+        transactionProducer = new MockProducer<>(true, new StringSerializer(), new JsonSerializer<>(objectMapper));
+        transactionPublisher = new TransactionEventPublisher(
+                new KafkaTemplate<>(new MockProducerFactory<>(() -> transactionProducer)),
+                Fixtures.bind("orchestrator.transaction-events", TransactionEventProperties.class,
+                        Map.of("orchestrator.transaction-events.spill-directory", spillDirectory.toString())),
+                objectMapper,
+                meterRegistry,
+                ObservationRegistry.NOOP
+        );
+        auditPublisher.start();
+        transactionPublisher.start();
+        decisionJournal.start();
+
+        IdempotencyProperties idempotency = Fixtures.bind("orchestrator.idempotency", IdempotencyProperties.class, Map.of());
+        controller = new FraudController(
+                analysisService,
+                auditPublisher,
+                transactionPublisher,
+                Fixtures.bind("orchestrator.batch", BatchProperties.class, Map.of()),
+                analysisMetrics,
+                new MemoryIdempotencyStore(idempotency, meterRegistry),
+                idempotency,
+                objectMapper
+        );
+    }
+
+    // O MockProducer guarda todos os registros enviados
+    @TearDown(Level.Iteration)
+    public void clearProducers() {
+        auditProducer.clear();
+        transactionProducer.clear();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        auditPublisher.stop();
+        transactionPublisher.stop();
+        decisionJournal.stop();
+        try (var files = Files.list(spillDirectory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(spillDirectory);
+    }
+
+    @Benchmark
+    public Map<String, Object> analyzeFraud() {
+        if (!profileCached) {
+            profileCache.invalidate(transaction.userId());
+        }
+        String key = idempotencyKey ? "bench-" + keySequence.incrementAndGet() : null;
+        return controller.analyzeFraud(key, transaction).block();
+    }
+}
@@ -0,0 +1,108 @@
+package com.frauddetector.benchmarks;
+
+import com.frauddetector.auditservice.archive.AuditSegment;
+import com.frauddetector.auditservice.archive.AuditSegmentWriter;
+import com.frauddetector.auditservice.entity.AuditLog;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Varredura de um segmento do arquivo morto (um dia, 1M de registros) mapeado em memória:
+// completa, filtrada por ação (sem decodificar as strings das outras) e por usuário.
+// O tamanho do segmento sai como métricas secundárias de fullScan (ver SegmentSize)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditArchiveScanBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final Instant DAY = Instant.parse("2026-01-01T00:00:00Z");
+    private static final String[] ACTIONS = {"APPROVE", "APPROVE", "APPROVE", "REVIEW", "DECLINE"};
+
+    private Path directory;
+    private AuditSegment segment;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("audit-archive-bench");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long microsPerRow = 86_400_000_000L / ROWS;
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, "audit_logs_p20260101")) {
+            for (int i = 0; i < ROWS; i++) {
+                writer.append(new AuditLog(
+                        (long) i,
+                        "ANALYSIS_COMPLETE",
+                        random.nextDouble(),
+                        ACTIONS[random.nextInt(ACTIONS.length)],
+                        DAY.plus(i * microsPerRow, ChronoUnit.MICROS),
+                        new UUID(random.nextLong(), random.nextLong()).toString(),
+                        "user" + random.nextInt(10_000),
+                        random.nextDouble(10.0, 5_000.0)
+                ));
+            }
+            segment = writer.commit();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(segment.path());
+        Files.deleteIfExists(directory);
+    }
+
+    // Bytes do segmento e registros lidos pelas varreduras completas, somados por iteração e
+    // levados ao jmh-result.json: segmentBytes / segmentRows = bytes por registro
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SegmentSize {
+        public long segmentBytes;
+        public long segmentRows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            segmentBytes = 0;
+            segmentRows = 0;
+        }
+    }
+
+    @Benchmark
+    public long fullScan(Blackhole blackhole, SegmentSize size) throws IOException {
+        long rows = segment.scan(DAY, DAY.plusSeconds(86_400), null, null, blackhole::consume);
+        size.segmentBytes += segment.sizeBytes();
+        size.segmentRows += rows;
+        return rows;
+    }
+
+    @Benchmark
+    public long declineScan(Blackhole blackhole) throws IOException {
+        return segment.scan(DAY, DAY.plusSeconds(86_400), "DECLINE", null, blackhole::consume);
+    }
+
+    @Benchmark
+    public long userScan(Blackhole blackhole) throws IOException {
+        return segment.scan(DAY, DAY.plusSeconds(86_400), null, "user42", blackhole::consume);
+    }
+}
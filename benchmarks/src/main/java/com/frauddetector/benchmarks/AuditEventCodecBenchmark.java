@@ -0,0 +1,109 @@
+package com.frauddetector.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frauddetector.events.AnalysisResponseDTO;
+import com.frauddetector.events.AuditLogEvent;
+import com.frauddetector.events.AuditLogEventDeserializer;
+import com.frauddetector.events.AuditLogEventSerializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+// Evento de auditoria no Kafka: JsonSerializer/JsonDeserializer do spring-kafka (formato
+// anterior) contra o formato binário do event-schema. O tamanho de cada formato sai como
+// métricas secundárias (ver EncodedBytes)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditEventCodecBenchmark {
+
+    private static final String TOPIC = "fraud_analysis_events";
+
+    private final AuditLogEvent event = new AuditLogEvent(
+            "3f2b8c1e-6a4d-4e8f-9b7a-2d5c0e1f4a6b", "user123", 500.0,
+            "ANALYSIS_COMPLETE", new AnalysisResponseDTO(0.4126728747874845, "REVIEW")
+    );
+
+    private JsonSerializer<AuditLogEvent> jsonSerializer;
+    private JsonDeserializer<AuditLogEvent> jsonDeserializer;
+    private AuditLogEventSerializer binarySerializer;
+    private AuditLogEventDeserializer binaryDeserializer;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = Fixtures.objectMapper();
+        jsonSerializer = new JsonSerializer<>(objectMapper);
+        jsonDeserializer = new JsonDeserializer<>(AuditLogEvent.class, objectMapper, false);
+        binarySerializer = new AuditLogEventSerializer();
+        binaryDeserializer = new AuditLogEventDeserializer();
+
+        jsonBytes = jsonSerializer.serialize(TOPIC, event);
+        binaryBytes = binarySerializer.serialize(TOPIC, event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jsonSerializer.close();
+        jsonDeserializer.close();
+    }
+
+    // Bytes codificados ou decodificados e eventos, somados por iteração e levados ao
+    // jmh-result.json como métricas secundárias: bytes / events = tamanho por evento
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedBytes {
+        public long bytes;
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            events = 0;
+        }
+
+        byte[] count(byte[] encoded) {
+            bytes += encoded.length;
+            events++;
+            return encoded;
+        }
+    }
+
+    @Benchmark
+    public byte[] jsonEncode(EncodedBytes size) {
+        return size.count(jsonSerializer.serialize(TOPIC, event));
+    }
+
+    @Benchmark
+    public AuditLogEvent jsonDecode(EncodedBytes size) {
+        return jsonDeserializer.deserialize(TOPIC, size.count(jsonBytes));
+    }
+
+    @Benchmark
+    public byte[] binaryEncode(EncodedBytes size) {
+        return size.count(binarySerializer.serialize(TOPIC, event));
+    }
+
+    @Benchmark
+    public AuditLogEvent binaryDecode(EncodedBytes size) {
+        return binaryDeserializer.deserialize(TOPIC, size.count(binaryBytes));
+    }
+}
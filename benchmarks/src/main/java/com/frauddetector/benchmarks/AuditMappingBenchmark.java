@@ -0,0 +1,93 @@
+package com.frauddetector.benchmarks;
+
+import com.frauddetector.auditservice.config.AuditRollupProperties;
+import com.frauddetector.auditservice.entity.AuditLog;
+import com.frauddetector.auditservice.repository.AuditLogBatchWriter;
+import com.frauddetector.auditservice.repository.DecisionRollupRepository;
+import com.frauddetector.auditservice.service.AuditConsumer;
+import com.frauddetector.auditservice.service.DecisionRollupAggregator;
+import com.frauddetector.events.AnalysisResponseDTO;
+import com.frauddetector.events.AuditLogEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// AuditConsumer.consume: conversão de um lote de registros AuditLogEvent em AuditLog, agregados
+// em memória e métricas, com um writer que só guarda o lote em vez de ir ao banco
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditMappingBenchmark {
+
+    // Tamanho do poll: um evento ou max-poll-records
+    @Param({"1", "500"})
+    public int batchSize;
+
+    private AuditConsumer consumer;
+    private CapturingWriter writer;
+    private List<ConsumerRecord<String, AuditLogEvent>> records;
+
+    @Setup
+    public void setup() {
+        writer = new CapturingWriter();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Sem flush: os agregados só acumulam em memória, como entre dois flushes em produção
+        DecisionRollupAggregator rollups = new DecisionRollupAggregator(
+                new DecisionRollupRepository(null),
+                Fixtures.bind("audit.rollups", AuditRollupProperties.class, Map.of()),
+                meterRegistry
+        );
+        consumer = new AuditConsumer(writer, rollups, meterRegistry, ObservationRegistry.NOOP);
+        String[] actions = {"APPROVE", "REVIEW", "DECLINE"};
+        records = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            String userId = "user" + (i % 100);
+            records.add(new ConsumerRecord<>("fraud_analysis_events", 0, i, userId, new AuditLogEvent(
+                    "tx-" + i,
+                    userId,
+                    10.0 + i,
+                    "ANALYSIS_COMPLETE",
+                    new AnalysisResponseDTO(i / (double) batchSize, actions[i % actions.length])
+            )));
+        }
+    }
+
+    @Benchmark
+    public List<AuditLog> consume() {
+        consumer.consume(records);
+        return writer.lastBatch;
+    }
+
+    private static final class CapturingWriter extends AuditLogBatchWriter {
+
+        private List<AuditLog> lastBatch;
+
+        private CapturingWriter() {
+            super(null);
+        }
+
+        @Override
+        public void insertAll(List<AuditLog> auditLogs) {
+            lastBatch = auditLogs;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.frauddetector.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Objetos compartilhados pelos benchmarks, montados como o Spring Boot montaria
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    // Mesmas configurações padrão do ObjectMapper criado pelo Spring Boot
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    // Instancia um @ConfigurationProperties com os @DefaultValue e as propriedades informadas
+    static <T> T bind(String prefix, Class<T> type, Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bindOrCreate(prefix, Bindable.of(type));
+    }
+
+    // WebClient cuja troca devolve sempre o mesmo JSON, sem rede. O corpo da requisição
+    // não é serializado (isso fica no benchmark de JSON)
+    static WebClient stubWebClient(String responseJson) {
+        ExchangeFunction exchange = request -> Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(responseJson)
+                .build());
+        return WebClient.builder().exchangeFunction(exchange).build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.frauddetector.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.frauddetector.events.AnalysisResponseDTO;
+import com.frauddetector.inference.v1.PredictRequest;
+import com.frauddetector.inference.v1.PredictResponse;
+import com.frauddetector.orchestrator.dto.AnalysisRequestDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Custo de marshalling de uma inferência no lado Java: pedido codificado e resposta
+// decodificada em JSON (POST /predict) e em protobuf (gRPC Predict)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InferenceCodecBenchmark {
+
+    private final AnalysisRequestDTO request = new AnalysisRequestDTO(
+            "user123", 500.0, 127, 75.50, "BRA", 2, 620.0, 4, 910.0, 9, 1830.0
+    );
+
+    private ObjectWriter requestWriter;
+    private ObjectReader responseReader;
+    private byte[] responseJson;
+    private byte[] responseProto;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = Fixtures.objectMapper();
+        requestWriter = objectMapper.writerFor(AnalysisRequestDTO.class);
+        responseReader = objectMapper.readerFor(AnalysisResponseDTO.class);
+        responseJson = objectMapper.writeValueAsBytes(new AnalysisResponseDTO(0.42, "REVIEW"));
+        responseProto = PredictResponse.newBuilder()
+                .setRiskScore(0.42)
+                .setRecommendedAction("REVIEW")
+                .setCorrelationId(1)
+                .build()
+                .toByteArray();
+    }
+
+    @Benchmark
+    public AnalysisResponseDTO json(Blackhole blackhole) throws IOException {
+        blackhole.consume(requestWriter.writeValueAsBytes(request));
+        return responseReader.readValue(responseJson);
+    }
+
+    @Benchmark
+    public AnalysisResponseDTO protobuf(Blackhole blackhole) throws IOException {
+        blackhole.consume(PredictRequest.newBuilder()
+                .setUserId(request.userId())
+                .setValue(request.value())
+                .setTransactionCount(request.transactionCount())
+                .setAverageAmount(request.averageAmount())
+                .setLastTransactionCountry(request.lastTransactionCountry())
+                .setTransactionsLastMinute(request.transactionsLastMinute())
+                .setAmountLastMinute(request.amountLastMinute())
+                .setTransactionsLastHour(request.transactionsLastHour())
+                .setAmountLastHour(request.amountLastHour())
+                .setTransactionsLastDay(request.transactionsLastDay())
+                .setAmountLastDay(request.amountLastDay())
+                .build()
+                .toByteArray());
+        PredictResponse response = PredictResponse.parseFrom(responseProto);
+        return new AnalysisResponseDTO(response.getRiskScore(), response.getRecommendedAction());
+    }
+}
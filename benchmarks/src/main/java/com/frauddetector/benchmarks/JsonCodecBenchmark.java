@@ -0,0 +1,123 @@
+package com.frauddetector.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.frauddetector.events.AnalysisResponseDTO;
+import com.frauddetector.events.AuditLogEvent;
+import com.frauddetector.orchestrator.dto.AnalysisRequestDTO;
+import com.frauddetector.orchestrator.dto.TransactionDTO;
+import com.frauddetector.orchestrator.dto.UserProfileDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Serialização e desserialização Jackson dos DTOs que cruzam HTTP e Kafka
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+
+    private final TransactionDTO transaction = new TransactionDTO("user123", 500.0, "BRA", null);
+    private final UserProfileDTO profile = new UserProfileDTO("user123", 127, 75.50, "BRA");
+    private final AnalysisRequestDTO analysisRequest = new AnalysisRequestDTO(
+            "user123", 500.0, 127, 75.50, "BRA", 2, 620.0, 4, 910.0, 9, 1830.0
+    );
+    private final AnalysisResponseDTO analysisResponse = new AnalysisResponseDTO(0.42, "REVIEW");
+    private final AuditLogEvent auditEvent = new AuditLogEvent(
+            "3f2b8c1e-6a4d-4e8f-9b7a-2d5c0e1f4a6b", "user123", 500.0, "ANALYSIS_COMPLETE", analysisResponse
+    );
+
+    private ObjectWriter writer;
+    private ObjectReader transactionReader;
+    private ObjectReader profileReader;
+    private ObjectReader analysisRequestReader;
+    private ObjectReader analysisResponseReader;
+    private ObjectReader auditEventReader;
+
+    private byte[] transactionJson;
+    private byte[] profileJson;
+    private byte[] analysisRequestJson;
+    private byte[] analysisResponseJson;
+    private byte[] auditEventJson;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = Fixtures.objectMapper();
+        writer = objectMapper.writer();
+        transactionReader = objectMapper.readerFor(TransactionDTO.class);
+        profileReader = objectMapper.readerFor(UserProfileDTO.class);
+        analysisRequestReader = objectMapper.readerFor(AnalysisRequestDTO.class);
+        analysisResponseReader = objectMapper.readerFor(AnalysisResponseDTO.class);
+        auditEventReader = objectMapper.readerFor(AuditLogEvent.class);
+
+        transactionJson = writer.writeValueAsBytes(transaction);
+        profileJson = writer.writeValueAsBytes(profile);
+        analysisRequestJson = writer.writeValueAsBytes(analysisRequest);
+        analysisResponseJson = writer.writeValueAsBytes(analysisResponse);
+        auditEventJson = writer.writeValueAsBytes(auditEvent);
+    }
+
+    @Benchmark
+    public byte[] writeTransaction() throws IOException {
+        return writer.writeValueAsBytes(transaction);
+    }
+
+    @Benchmark
+    public TransactionDTO readTransaction() throws IOException {
+        return transactionReader.readValue(transactionJson);
+    }
+
+    @Benchmark
+    public byte[] writeUserProfile() throws IOException {
+        return writer.writeValueAsBytes(profile);
+    }
+
+    @Benchmark
+    public UserProfileDTO readUserProfile() throws IOException {
+        return profileReader.readValue(profileJson);
+    }
+
+    @Benchmark
+    public byte[] writeAnalysisRequest() throws IOException {
+        return writer.writeValueAsBytes(analysisRequest);
+    }
+
+    @Benchmark
+    public AnalysisRequestDTO readAnalysisRequest() throws IOException {
+        return analysisRequestReader.readValue(analysisRequestJson);
+    }
+
+    @Benchmark
+    public byte[] writeAnalysisResponse() throws IOException {
+        return writer.writeValueAsBytes(analysisResponse);
+    }
+
+    @Benchmark
+    public AnalysisResponseDTO readAnalysisResponse() throws IOException {
+        return analysisResponseReader.readValue(analysisResponseJson);
+    }
+
+    @Benchmark
+    public byte[] writeAuditLogEvent() throws IOException {
+        return writer.writeValueAsBytes(auditEvent);
+    }
+
+    @Benchmark
+    public AuditLogEvent readAuditLogEvent() throws IOException {
+        return auditEventReader.readValue(auditEventJson);
+    }
+}
@@ -1,17 +1,14 @@
-package com.frauddetector.orchestrator.dto;
-
-import org.springframework.lang.NonNull;
+package com.frauddetector.events;
 
 public record AnalysisResponseDTO(
         double riskScore,
         String recommendedAction
 ) {
-    @NonNull
     @Override
-    public  String toString() {
+    public String toString() {
         return "AnalysisResponseDTO{" +
                 "riskScore=" + riskScore +
                 ", recommendedAction='" + recommendedAction + '\'' +
                 '}';
     }
-}
\ No newline at end of file
+}
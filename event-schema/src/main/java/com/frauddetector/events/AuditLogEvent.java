@@ -0,0 +1,12 @@
+package com.frauddetector.events;
+
+// Evento do tópico fraud_analysis_events. Campos novos entram no fim do formato binário,
+// em uma nova versão do AuditLogEventCodec
+public record AuditLogEvent(
+        String transactionId,
+        // Chave do registro no Kafka: eventos do mesmo usuário ficam na mesma partição, em ordem
+        String userId,
+        Double value,
+        String status,
+        AnalysisResponseDTO riskAnalysis
+) {}
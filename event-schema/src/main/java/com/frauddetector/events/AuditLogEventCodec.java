@@ -0,0 +1,167 @@
+package com.frauddetector.events;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Formato binário do AuditLogEvent:
+//
+//   magic (1 byte) | versão do esquema (1 byte) | campos da v1 | campos da v2 | ...
+//
+// Os campos de cada versão são gravados em ordem fixa, sem nomes: strings como tamanho
+// varint + UTF-8 (0 = nulo, n + 1 = n bytes) e números em big-endian de tamanho fixo.
+// Regras de evolução: campos só são acrescentados no fim, em uma nova versão; nunca são
+// removidos nem reordenados. Um consumidor lê os campos das versões que conhece e ignora
+// o restante, e campos de versões que o produtor não conhecia ficam com o valor padrão.
+//
+//   v1: status, riskAnalysis (presença + riskScore + recommendedAction)
+//   v2: transactionId, userId, value (presença + double)
+public final class AuditLogEventCodec {
+
+    public static final byte MAGIC = (byte) 0xAE;
+    public static final int CURRENT_VERSION = 2;
+
+    private static final int HEADER_BYTES = 2;
+
+    private AuditLogEventCodec() {}
+
+    public static byte[] encode(AuditLogEvent event) {
+        byte[] status = utf8(event.status());
+        AnalysisResponseDTO riskAnalysis = event.riskAnalysis();
+        byte[] action = riskAnalysis == null ? null : utf8(riskAnalysis.recommendedAction());
+        byte[] transactionId = utf8(event.transactionId());
+        byte[] userId = utf8(event.userId());
+        Double value = event.value();
+
+        // Tamanho exato calculado antes, para alocar o array uma vez só
+        int size = HEADER_BYTES + stringBytes(status) + 1;
+        if (riskAnalysis != null) {
+            size += Double.BYTES + stringBytes(action);
+        }
+        size += stringBytes(transactionId) + stringBytes(userId) + 1;
+        if (value != null) {
+            size += Double.BYTES;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(MAGIC);
+        buffer.put((byte) CURRENT_VERSION);
+
+        // v1
+        putString(buffer, status);
+        buffer.put((byte) (riskAnalysis == null ? 0 : 1));
+        if (riskAnalysis != null) {
+            buffer.putDouble(riskAnalysis.riskScore());
+            putString(buffer, action);
+        }
+
+        // v2
+        putString(buffer, transactionId);
+        putString(buffer, userId);
+        buffer.put((byte) (value == null ? 0 : 1));
+        if (value != null) {
+            buffer.putDouble(value);
+        }
+        return buffer.array();
+    }
+
+    public static AuditLogEvent decode(byte[] data) {
+        if (data.length < HEADER_BYTES || data[0] != MAGIC) {
+            throw new SerializationException("AuditLogEvent sem o cabeçalho binário esperado");
+        }
+        int version = Byte.toUnsignedInt(data[1]);
+        if (version < 1) {
+            throw new SerializationException("Versão de esquema inválida: " + version);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(data, HEADER_BYTES, data.length - HEADER_BYTES);
+        try {
+            // v1
+            String status = getString(buffer);
+            AnalysisResponseDTO riskAnalysis = null;
+            if (buffer.get() != 0) {
+                double riskScore = buffer.getDouble();
+                riskAnalysis = new AnalysisResponseDTO(riskScore, getString(buffer));
+            }
+
+            // v2
+            String transactionId = null;
+            String userId = null;
+            Double value = null;
+            if (version >= 2) {
+                transactionId = getString(buffer);
+                userId = getString(buffer);
+                if (buffer.get() != 0) {
+                    value = buffer.getDouble();
+                }
+            }
+            return new AuditLogEvent(transactionId, userId, value, status, riskAnalysis);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SerializationException("AuditLogEvent v" + version + " truncado ou corrompido", e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringBytes(byte[] value) {
+        return value == null ? 1 : varintBytes(value.length + 1) + value.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        putVarint(buffer, value.length + 1);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = getVarint(buffer);
+        if (length == 0) {
+            return null;
+        }
+        length--;
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static int varintBytes(int value) {
+        int bytes = 1;
+        while ((value >>>= 7) != 0) {
+            bytes++;
+        }
+        return bytes;
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte current = buffer.get();
+            value |= (current & 0x7F) << shift;
+            if (current >= 0) {
+                if (value < 0) {
+                    throw new IllegalArgumentException("varint negativo");
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint longo demais");
+    }
+}
@@ -0,0 +1,12 @@
+package com.frauddetector.events;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+// Deserializer Kafka do AuditLogEvent; aceita qualquer versão do esquema (ver AuditLogEventCodec)
+public class AuditLogEventDeserializer implements Deserializer<AuditLogEvent> {
+
+    @Override
+    public AuditLogEvent deserialize(String topic, byte[] data) {
+        return data == null ? null : AuditLogEventCodec.decode(data);
+    }
+}
@@ -0,0 +1,12 @@
+package com.frauddetector.events;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+// Serializer Kafka do AuditLogEvent no formato binário do AuditLogEventCodec
+public class AuditLogEventSerializer implements Serializer<AuditLogEvent> {
+
+    @Override
+    public byte[] serialize(String topic, AuditLogEvent event) {
+        return event == null ? null : AuditLogEventCodec.encode(event);
+    }
+}
@@ -1,14 +1,34 @@
+import os
 from contextlib import asynccontextmanager
+from typing import List
 from fastapi import FastAPI
 from pydantic import BaseModel, Field
+import grpc
 import numpy as np
 
+# Gerados a partir de proto/inference.proto, na raiz do repositório (ver Dockerfile)
+from app import inference_pb2, inference_pb2_grpc
+
+GRPC_PORT = int(os.getenv("GRPC_PORT", "50051"))
+
 
 @asynccontextmanager
 async def lifespan(app: FastAPI):
     get_model()
+
+    # Servidor gRPC no mesmo event loop do uvicorn, ao lado do endpoint JSON
+    # Aceita os pings de keepalive do orchestrator, que mantém a conexão aberta sem chamadas
+    grpc_server = grpc.aio.server(options=[
+        ("grpc.keepalive_permit_without_calls", 1),
+        ("grpc.http2.min_ping_interval_without_data_ms", 10000),
+    ])
+    inference_pb2_grpc.add_InferenceServicer_to_server(InferenceServicer(), grpc_server)
+    grpc_server.add_insecure_port(f"[::]:{GRPC_PORT}")
+    await grpc_server.start()
+
     print(">>> Aplicação iniciada e pronta para receber requisições")
     yield
+    await grpc_server.stop(grace=5)
 
 
 app = FastAPI(lifespan=lifespan)
@@ -31,12 +51,23 @@ class AnalysisRequest(BaseModel):
     transaction_count: int = Field(..., alias='transactionCount')
     average_amount: float = Field(..., alias='averageAmount')
     last_transaction_country: str = Field(..., alias='lastTransactionCountry')
+    # Contadores de velocidade do orchestrator (incluem a transação atual). Opcionais
+    # para aceitar clientes que ainda não os enviam
+    transactions_last_minute: int = Field(0, alias='transactionsLastMinute')
+    amount_last_minute: float = Field(0.0, alias='amountLastMinute')
+    transactions_last_hour: int = Field(0, alias='transactionsLastHour')
+    amount_last_hour: float = Field(0.0, alias='amountLastHour')
+    transactions_last_day: int = Field(0, alias='transactionsLastDay')
+    amount_last_day: float = Field(0.0, alias='amountLastDay')
 
 class AnalysisResponse(BaseModel):
     risk_score: float = Field(..., alias='riskScore')
     recommended_action: str = Field(..., alias='recommendedAction')
 
 
+# Transações por minuto acima das quais o usuário é tratado como rajada
+VELOCITY_MINUTE_LIMIT = 5
+
 # Função que simula a predição do modelo de ML, por enquanto, usada apenas para testes
 def predict_proba_with_simulator(request: AnalysisRequest) -> float:
     """
@@ -60,6 +91,10 @@ def predict_proba_with_simulator(request: AnalysisRequest) -> float:
     if request.transaction_count < 2:
         score += 0.2
 
+    # Rajada de transações no último minuto (padrão de teste de cartão)
+    if request.transactions_last_minute > VELOCITY_MINUTE_LIMIT:
+        score += 0.3
+
     # Normalização e um pouco de ruído para parecer mais real
     final_score = min(score, 1.0)
     final_score = max(0.01, final_score * (1 + np.random.uniform(-0.05, 0.05)))
@@ -99,6 +134,43 @@ def get_cost_sensitive_action(probability_of_fraud: float, transaction_value: fl
 
     return "APPROVE"
 
+# Versões vetorizadas das regras acima, para o /predict/batch: cada regra é aplicada
+# ao lote inteiro de uma vez com numpy, em vez de uma transação por chamada
+def predict_proba_batch(
+    value: np.ndarray,
+    average_amount: np.ndarray,
+    transaction_count: np.ndarray,
+    foreign: np.ndarray,
+    transactions_last_minute: np.ndarray,
+) -> np.ndarray:
+    score = np.where(
+        average_amount > 0,
+        np.where(value > average_amount * 2, 0.4, 0.0),
+        np.where(value > 1000, 0.3, 0.0),
+    )
+    score += np.where(foreign, 0.3, 0.0)
+    score += np.where(transaction_count < 2, 0.2, 0.0)
+    score += np.where(transactions_last_minute > VELOCITY_MINUTE_LIMIT, 0.3, 0.0)
+
+    final_score = np.minimum(score, 1.0)
+    final_score = np.maximum(0.01, final_score * (1 + np.random.uniform(-0.05, 0.05, size=len(score))))
+
+    return np.minimum(final_score, 1.0)
+
+
+def get_cost_sensitive_actions(probability_of_fraud: np.ndarray, transaction_value: np.ndarray) -> np.ndarray:
+    COST_FP = 2.0
+    total_cost = transaction_value + COST_FP
+    threshold = np.divide(COST_FP, total_cost, out=np.ones_like(total_cost), where=total_cost > 0)
+    decline_threshold = 0.90
+
+    return np.where(
+        probability_of_fraud > decline_threshold,
+        "DECLINE",
+        np.where(probability_of_fraud > threshold, "REVIEW", "APPROVE"),
+    )
+
+
 @app.post("/predict", response_model=AnalysisResponse)
 def predict_fraud(request: AnalysisRequest):
     print(f">>> Análise de risco solicitada para: {request.model_dump(by_alias=True)}")
@@ -115,6 +187,47 @@ def predict_fraud(request: AnalysisRequest):
 
     return AnalysisResponse(riskScore=fraud_probability, recommendedAction=action)
 
+@app.post("/predict/batch", response_model=List[AnalysisResponse])
+def predict_fraud_batch(requests: List[AnalysisRequest]):
+    # Uma resposta por pedido, na mesma ordem
+    size = len(requests)
+    value = np.fromiter((r.value for r in requests), dtype=float, count=size)
+    average_amount = np.fromiter((r.average_amount for r in requests), dtype=float, count=size)
+    transaction_count = np.fromiter((r.transaction_count for r in requests), dtype=int, count=size)
+    foreign = np.fromiter((r.last_transaction_country != "BRA" for r in requests), dtype=bool, count=size)
+    transactions_last_minute = np.fromiter((r.transactions_last_minute for r in requests), dtype=int, count=size)
+
+    fraud_probability = predict_proba_batch(
+        value, average_amount, transaction_count, foreign, transactions_last_minute
+    )
+    actions = get_cost_sensitive_actions(fraud_probability, value)
+
+    return [
+        AnalysisResponse(riskScore=float(probability), recommendedAction=str(action))
+        for probability, action in zip(fraud_probability, actions)
+    ]
+
+# Transporte binário (gRPC/protobuf). As mensagens têm os mesmos nomes de campo do
+# AnalysisRequest, então o simulador as recebe diretamente, sem validação campo a campo
+class InferenceServicer(inference_pb2_grpc.InferenceServicer):
+
+    async def Predict(self, request, context):
+        return predict_message(request)
+
+    async def PredictStream(self, request_iterator, context):
+        async for request in request_iterator:
+            yield predict_message(request)
+
+
+def predict_message(request) -> inference_pb2.PredictResponse:
+    fraud_probability = predict_proba_with_simulator(request)
+    action = get_cost_sensitive_action(fraud_probability, request.value)
+    return inference_pb2.PredictResponse(
+        risk_score=fraud_probability,
+        recommended_action=action,
+        correlation_id=request.correlation_id,
+    )
+
 @app.get("/health")
 def health_check():
     return {"status": "ok"}
\ No newline at end of file
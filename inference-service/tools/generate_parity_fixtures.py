@@ -0,0 +1,106 @@
+"""
+Gera as tabelas de paridade usadas por LocalScoringEngineParityTest (orchestrator), rodando
+predict_proba_with_simulator e get_cost_sensitive_action de app/main.py com o ruído fixado.
+
+Rodar da raiz do repositório, no ambiente do inference-service (requirements.txt e stubs
+gRPC gerados), sempre que as regras do simulador mudarem:
+
+    python inference-service/tools/generate_parity_fixtures.py
+"""
+import csv
+import os
+import sys
+from types import SimpleNamespace
+
+ROOT = os.path.dirname(os.path.dirname(os.path.dirname(os.path.abspath(__file__))))
+sys.path.insert(0, os.path.join(ROOT, "inference-service"))
+
+from app import main  # noqa: E402
+
+OUTPUT = os.path.join(ROOT, "orchestrator", "src", "test", "resources", "scoring-parity")
+
+# (caso, valor, transactionCount, averageAmount, país, transações no último minuto, ruído)
+RISK_CASES = [
+    ("sem regra", 100.0, 10, 200.0, "BRA", 0, 0.0),
+    ("piso de 0.01", 100.0, 10, 200.0, "BRA", 0, -0.05),
+    ("valor acima do dobro da média", 401.0, 10, 200.0, "BRA", 0, 0.0),
+    ("valor igual ao dobro da média", 400.0, 10, 200.0, "BRA", 0, 0.0),
+    ("sem média, valor alto", 1500.0, 10, 0.0, "BRA", 0, 0.0),
+    ("sem média, valor no limite", 1000.0, 10, 0.0, "BRA", 0, 0.0),
+    ("sem média, valor baixo", 999.99, 10, 0.0, "BRA", 0, 0.0),
+    ("média negativa conta como sem média", 1500.0, 10, -50.0, "BRA", 0, 0.0),
+    ("país estrangeiro", 100.0, 10, 200.0, "USA", 0, 0.0),
+    ("país nulo", 100.0, 10, 200.0, None, 0, 0.0),
+    ("usuário novo", 100.0, 1, 200.0, "BRA", 0, 0.0),
+    ("duas transações não é novo", 100.0, 2, 200.0, "BRA", 0, 0.0),
+    ("velocidade no limite", 100.0, 10, 200.0, "BRA", 5, 0.0),
+    ("velocidade acima do limite", 100.0, 10, 200.0, "BRA", 6, 0.0),
+    ("todas as regras, teto 1.0", 5000.0, 0, 100.0, "USA", 20, 0.05),
+    ("todas as regras, ruído negativo", 5000.0, 0, 100.0, "USA", 20, -0.05),
+    ("média + país + novo", 500.0, 1, 100.0, "ARG", 0, 0.0),
+    ("média + país + novo, ruído", 500.0, 1, 100.0, "ARG", 0, 0.0312),
+    ("sem média + país + novo", 2000.0, 0, 0.0, None, 0, -0.0271),
+    ("país + velocidade", 50.0, 10, 200.0, "USA", 7, 0.049),
+]
+
+# (caso, probabilidade, valor)
+ACTION_CASES = [
+    ("score exatamente 0.90 não recusa", 0.90, 1000.0),
+    ("score acima de 0.90 recusa", 0.9000000001, 1000.0),
+    ("score igual ao limite de risco aprova", 0.5, 2.0),
+    ("score acima do limite de risco revisa", 0.5000001, 2.0),
+    ("valor + COST_FP igual a 0", 0.89, -2.0),
+    ("valor + COST_FP negativo", 0.89, -5.0),
+    ("valor + COST_FP negativo, score alto", 0.95, -5.0),
+    ("valor + COST_FP pouco positivo", 0.5, -1.99),
+    ("valor zero", 0.99, 0.0),
+    ("valor zero, score baixo", 0.5, 0.0),
+    ("valor alto, score baixo", 0.01, 10000.0),
+    ("valor alto, score mínimo igual ao limite", 0.0002, 9998.0),
+]
+
+
+def risk_score(value, transaction_count, average_amount, country, last_minute, noise):
+    request = SimpleNamespace(
+        value=value,
+        transaction_count=transaction_count,
+        average_amount=average_amount,
+        last_transaction_country=country,
+        transactions_last_minute=last_minute,
+    )
+    uniform = main.np.random.uniform
+    main.np.random.uniform = lambda low, high: noise
+    try:
+        return main.predict_proba_with_simulator(request)
+    finally:
+        main.np.random.uniform = uniform
+
+
+def write(name, header, rows):
+    with open(os.path.join(OUTPUT, name), "w", newline="", encoding="utf-8") as file:
+        writer = csv.writer(file, lineterminator="\n")
+        writer.writerow(header)
+        writer.writerows(rows)
+
+
+def main_():
+    os.makedirs(OUTPUT, exist_ok=True)
+    risk_rows = []
+    for case, value, count, average, country, last_minute, noise in RISK_CASES:
+        score = risk_score(value, count, average, country, last_minute, noise)
+        action = main.get_cost_sensitive_action(score, value)
+        # País nulo vira campo vazio, lido como null pelo @CsvFileSource
+        risk_rows.append([case, repr(value), count, repr(average), country or "", last_minute,
+                          repr(noise), repr(score), action])
+    write("risk-score.csv",
+          ["case", "value", "transactionCount", "averageAmount", "lastTransactionCountry",
+           "transactionsLastMinute", "noise", "expectedScore", "expectedAction"],
+          risk_rows)
+
+    action_rows = [[case, repr(probability), repr(value), main.get_cost_sensitive_action(probability, value)]
+                   for case, probability, value in ACTION_CASES]
+    write("recommended-action.csv", ["case", "probability", "value", "expectedAction"], action_rows)
+
+
+if __name__ == "__main__":
+    main_()
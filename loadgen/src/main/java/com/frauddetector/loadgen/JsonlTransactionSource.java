@@ -0,0 +1,29 @@
+package com.frauddetector.loadgen;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Reenvia as linhas de um arquivo JSONL, em ciclo, exatamente como estão
+final class JsonlTransactionSource implements TransactionSource {
+
+    private final List<String> lines;
+    private int position;
+
+    JsonlTransactionSource(Path file) throws IOException {
+        try (var stream = Files.lines(file)) {
+            this.lines = stream.map(String::trim).filter(line -> !line.isEmpty()).toList();
+        }
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException("Arquivo sem transações: " + file);
+        }
+    }
+
+    @Override
+    public String next() {
+        String line = lines.get(position);
+        position = (position + 1) % lines.size();
+        return line;
+    }
+}
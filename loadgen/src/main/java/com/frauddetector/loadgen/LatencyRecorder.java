@@ -0,0 +1,101 @@
+package com.frauddetector.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Histogramas HDR (nanossegundos) por endpoint e por resultado, mais um "ALL" por endpoint
+final class LatencyRecorder {
+
+    static final String ALL = "ALL";
+    static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    void record(String endpoint, String outcome, long latencyNanos) {
+        histogram(endpoint, outcome).recordValue(latencyNanos);
+        histogram(endpoint, ALL).recordValue(latencyNanos);
+    }
+
+    // Grava summary.csv (comparável entre execuções), um .hgrm por histograma e
+    // histograms.hlog (formato de log do HdrHistogram, com tags endpoint/resultado)
+    void export(Path directory, long elapsedNanos) throws IOException {
+        Files.createDirectories(directory);
+        Map<String, Histogram> sorted = new TreeMap<>(histograms);
+
+        try (Writer csv = Files.newBufferedWriter(directory.resolve("summary.csv"), StandardCharsets.UTF_8)) {
+            csv.write("endpoint,outcome,count,throughput_rps,p50_ms,p90_ms,p99_ms,p99.9_ms,p99.99_ms,max_ms\n");
+            for (Map.Entry<String, Histogram> entry : sorted.entrySet()) {
+                Histogram histogram = entry.getValue();
+                StringBuilder line = new StringBuilder(entry.getKey().replace('|', ','))
+                        .append(',').append(histogram.getTotalCount())
+                        .append(',').append(format(histogram.getTotalCount() / (elapsedNanos / 1e9)));
+                for (double percentile : PERCENTILES) {
+                    line.append(',').append(format(histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI));
+                }
+                line.append(',').append(format(histogram.getMaxValue() / NANOS_PER_MILLI)).append('\n');
+                csv.write(line.toString());
+            }
+        }
+
+        for (Map.Entry<String, Histogram> entry : sorted.entrySet()) {
+            Path file = directory.resolve(fileName(entry.getKey()) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+                entry.getValue().outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve("histograms.hlog")),
+                false, StandardCharsets.UTF_8)) {
+            HistogramLogWriter log = new HistogramLogWriter(out);
+            log.outputLogFormatVersion();
+            log.outputLegend();
+            for (Map.Entry<String, Histogram> entry : sorted.entrySet()) {
+                Histogram histogram = entry.getValue().copy();
+                histogram.setTag(fileName(entry.getKey()));
+                log.outputIntervalHistogram(histogram);
+            }
+        }
+    }
+
+    void printSummary(PrintStream out) {
+        out.printf(Locale.ROOT, "%-28s %-10s %10s %10s %10s %10s %10s %10s%n",
+                "endpoint", "outcome", "count", "p50 ms", "p99 ms", "p99.9 ms", "p99.99 ms", "max ms");
+        new TreeMap<>(histograms).forEach((key, histogram) -> {
+            String[] parts = key.split("\\|");
+            out.printf(Locale.ROOT, "%-28s %-10s %10d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                    parts[0], parts[1], histogram.getTotalCount(),
+                    histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99.99) / NANOS_PER_MILLI,
+                    histogram.getMaxValue() / NANOS_PER_MILLI);
+        });
+    }
+
+    private Histogram histogram(String endpoint, String outcome) {
+        // Três dígitos significativos; o intervalo de valores cresce conforme necessário
+        return histograms.computeIfAbsent(endpoint + "|" + outcome, key -> new ConcurrentHistogram(3));
+    }
+
+    private static String fileName(String key) {
+        return key.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "");
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,168 @@
+package com.frauddetector.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Gerador de carga em malha aberta: as requisições partem em instantes fixados pela taxa
+// de chegada, independentemente das respostas. A latência é medida a partir do instante
+// planejado, então esperas por concorrência ou atrasos do próprio gerador entram na
+// medida (sem omissão coordenada).
+public final class LoadGenerator {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final LoadOptions options;
+    private final TransactionSource source;
+    private final HttpClient client;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final Semaphore inFlight;
+    private final String[] endpointByWeight;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong late = new AtomicLong();
+
+    private LoadGenerator(LoadOptions options, TransactionSource source) {
+        this.options = options;
+        this.source = source;
+        this.inFlight = new Semaphore(options.concurrency());
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.endpointByWeight = options.endpoints().entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(String[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (LoadOptions.wantsHelp(args)) {
+            System.out.print(LoadOptions.USAGE);
+            return;
+        }
+        LoadOptions options = LoadOptions.parse(args);
+        if (!options.compare().isEmpty()) {
+            RunComparison.compare(options.compare().get(0), options.compare().get(1), System.out);
+            return;
+        }
+
+        TransactionSource source = options.file() != null
+                ? new JsonlTransactionSource(options.file())
+                : new ZipfTransactionSource(options.users(), options.zipfExponent(), options.seed());
+        new LoadGenerator(options, source).run();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        System.out.printf("Alvo %s, endpoints %s, taxa %s (%d chegadas), concorrência %d%n",
+                options.target(), options.endpoints(), options.schedule(),
+                options.schedule().totalArrivals(), options.concurrency());
+
+        long start = System.nanoTime();
+        long sequence = 0;
+
+        // Cada envio sai no instante da sua chegada na rampa, calculado desde o início,
+        // então a taxa segue a rampa mesmo quando ela começa em 0 ou muda rápido
+        long offset;
+        while ((offset = options.schedule().arrivalNanos(sequence)) >= 0) {
+            long intended = start + offset;
+            long now = System.nanoTime();
+            if (intended > now) {
+                LockSupport.parkNanos(intended - now);
+                continue;
+            }
+            // Mais de 1 ms atrasado em relação ao planejado: o gerador não está dando conta
+            if (now - intended > TimeUnit.MILLISECONDS.toNanos(1)) {
+                late.incrementAndGet();
+            }
+            send(endpointByWeight[(int) (sequence++ % endpointByWeight.length)], intended);
+        }
+
+        // Espera as respostas pendentes (no máximo um timeout)
+        if (!inFlight.tryAcquire(options.concurrency(), options.timeout().toMillis() * 2, TimeUnit.MILLISECONDS)) {
+            System.out.println("Algumas requisições não terminaram a tempo");
+        }
+        long elapsed = System.nanoTime() - start;
+
+        recorder.printSummary(System.out);
+        System.out.printf("Enviadas: %d, atrasadas no envio (> 1 ms): %d%n", sent.get(), late.get());
+        recorder.export(options.output(), elapsed);
+        writeRunInfo(elapsed);
+        System.out.println("Resultados em " + options.output());
+    }
+
+    private void send(String endpoint, long intendedNanos) throws InterruptedException {
+        // Bloqueia o agendador quando o limite é atingido; o atraso conta na latência
+        inFlight.acquire();
+        sent.incrementAndGet();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.target() + endpoint))
+                .timeout(options.timeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(source.next()))
+                .build();
+
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - intendedNanos;
+                    recorder.record(endpoint, outcome(response, error), latency);
+                    inFlight.release();
+                });
+    }
+
+    // APPROVE / REVIEW / DECLINE pela ação recomendada; DEGRADED, HTTP_<status> ou ERROR nos demais casos
+    private static String outcome(HttpResponse<String> response, Throwable error) {
+        if (error != null) {
+            return "ERROR";
+        }
+        if (response.statusCode() / 100 != 2) {
+            return "HTTP_" + response.statusCode();
+        }
+        try {
+            JsonNode body = OBJECT_MAPPER.readTree(response.body());
+            if ("ANALYSIS_DEGRADED".equals(body.path("status").asText())) {
+                return "DEGRADED";
+            }
+            String action = body.path("riskAnalysis").path("recommendedAction").asText();
+            return action.isEmpty() ? "UNKNOWN" : action;
+        } catch (IOException e) {
+            return "UNPARSEABLE";
+        }
+    }
+
+    private void writeRunInfo(long elapsedNanos) throws IOException {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("finishedAt", Instant.now().toString());
+        info.put("target", options.target().toString());
+        info.put("endpoints", options.endpoints().toString());
+        info.put("schedule", options.schedule().toString());
+        info.put("concurrency", options.concurrency());
+        info.put("source", options.file() != null
+                ? options.file().toString()
+                : "zipf(users=" + options.users() + ", s=" + options.zipfExponent() + ", seed=" + options.seed() + ")");
+        info.put("sent", sent.get());
+        info.put("lateSends", late.get());
+        info.put("elapsedSeconds", elapsedNanos / 1e9);
+
+        try (Writer writer = Files.newBufferedWriter(options.output().resolve("run.properties"), StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Object> entry : info.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.frauddetector.loadgen;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Opções da linha de comando, no formato --nome=valor
+record LoadOptions(
+        URI target,
+        Map<String, Integer> endpoints,
+        RateSchedule schedule,
+        int concurrency,
+        Duration timeout,
+        Path file,
+        int users,
+        double zipfExponent,
+        long seed,
+        Path output,
+        List<Path> compare
+) {
+    static final String USAGE = """
+            Uso: java -jar loadgen.jar [opções]
+
+              --target=URL          gateway (padrão http://localhost:8080) ou orquestrador (http://localhost:8081)
+              --endpoints=LISTA     caminhos e pesos, ex.: /analyze:1 (padrão /analyze)
+              --rate=N              chegadas por segundo com taxa fixa (padrão 100)
+              --duration=TEMPO      duração com taxa fixa, ex.: 60s, 5m (padrão 60s)
+              --schedule=PONTOS     rampa tempo:taxa, interpolada linearmente, ex.: 0s:100,30s:1000,90s:1000
+              --concurrency=N       requisições em andamento no máximo (padrão 256)
+              --timeout=TEMPO       timeout de cada requisição (padrão 5s)
+              --file=ARQUIVO        JSONL com uma transação por linha, reenviado em ciclo
+              --users=N             sem --file: usuários sintéticos user1..userN (padrão 100000)
+              --zipf=S              sem --file: expoente da distribuição de usuários (padrão 1.1)
+              --seed=N              semente dos dados sintéticos (padrão 42)
+              --output=DIR          diretório dos resultados (padrão loadgen/results/<data-hora>)
+              --compare=DIR_A,DIR_B compara o summary.csv de duas execuções e sai
+            """;
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            String name = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+            values.put(name, equals < 0 ? "true" : arg.substring(equals + 1));
+        }
+
+        RateSchedule schedule = values.containsKey("schedule")
+                ? RateSchedule.parse(values.get("schedule"))
+                : RateSchedule.constant(
+                        Double.parseDouble(values.getOrDefault("rate", "100")),
+                        parseDuration(values.getOrDefault("duration", "60s")));
+
+        List<Path> compare = new ArrayList<>();
+        if (values.containsKey("compare")) {
+            for (String dir : values.get("compare").split(",")) {
+                compare.add(Path.of(dir.trim()));
+            }
+            if (compare.size() != 2) {
+                throw new IllegalArgumentException("--compare espera dois diretórios");
+            }
+        }
+
+        String defaultOutput = "loadgen/results/" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("uuuuMMdd-HHmmss"));
+        return new LoadOptions(
+                URI.create(values.getOrDefault("target", "http://localhost:8080")),
+                parseEndpoints(values.getOrDefault("endpoints", "/analyze")),
+                schedule,
+                Integer.parseInt(values.getOrDefault("concurrency", "256")),
+                parseDuration(values.getOrDefault("timeout", "5s")),
+                values.containsKey("file") ? Path.of(values.get("file")) : null,
+                Integer.parseInt(values.getOrDefault("users", "100000")),
+                Double.parseDouble(values.getOrDefault("zipf", "1.1")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("output", defaultOutput)),
+                compare
+        );
+    }
+
+    static boolean wantsHelp(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Aceita 500ms, 30s, 5m e 1h
+    static Duration parseDuration(String value) {
+        String text = value.trim();
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        long amount = Long.parseLong(text.substring(0, text.length() - 1));
+        return switch (text.charAt(text.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Duração inválida: " + value);
+        };
+    }
+
+    private static Map<String, Integer> parseEndpoints(String value) {
+        Map<String, Integer> endpoints = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            endpoints.put(parts[0], parts.length > 1 ? Integer.parseInt(parts[1]) : 1);
+        }
+        return endpoints;
+    }
+}
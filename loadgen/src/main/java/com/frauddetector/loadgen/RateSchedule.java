@@ -0,0 +1,96 @@
+package com.frauddetector.loadgen;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Taxa de chegada ao longo do tempo: pontos (instante, req/s) interpolados linearmente.
+// A execução termina no último ponto
+final class RateSchedule {
+
+    private final long[] offsetsNanos;
+    private final double[] rates;
+    // Chegadas acumuladas (integral da taxa) até cada ponto
+    private final double[] arrivals;
+
+    private RateSchedule(long[] offsetsNanos, double[] rates) {
+        if (Arrays.stream(rates).anyMatch(rate -> rate < 0 || Double.isNaN(rate))) {
+            throw new IllegalArgumentException("Taxas não podem ser negativas: " + Arrays.toString(rates));
+        }
+        this.offsetsNanos = offsetsNanos;
+        this.rates = rates;
+        this.arrivals = new double[rates.length];
+        for (int i = 1; i < rates.length; i++) {
+            double seconds = (offsetsNanos[i] - offsetsNanos[i - 1]) / 1e9;
+            arrivals[i] = arrivals[i - 1] + (rates[i - 1] + rates[i]) / 2 * seconds;
+        }
+    }
+
+    static RateSchedule constant(double rate, Duration duration) {
+        return new RateSchedule(new long[]{0, duration.toNanos()}, new double[]{rate, rate});
+    }
+
+    // Formato: 0s:100,30s:1000,90s:1000
+    static RateSchedule parse(String value) {
+        List<Long> offsets = new ArrayList<>();
+        List<Double> rates = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Ponto da rampa inválido: " + entry);
+            }
+            long offset = LoadOptions.parseDuration(parts[0]).toNanos();
+            if (!offsets.isEmpty() && offset <= offsets.get(offsets.size() - 1)) {
+                throw new IllegalArgumentException("Os instantes da rampa devem ser crescentes: " + value);
+            }
+            offsets.add(offset);
+            rates.add(Double.parseDouble(parts[1]));
+        }
+        if (offsets.size() < 2 || offsets.get(0) != 0) {
+            throw new IllegalArgumentException("A rampa precisa começar em 0s e ter ao menos dois pontos: " + value);
+        }
+
+        return new RateSchedule(
+                offsets.stream().mapToLong(Long::longValue).toArray(),
+                rates.stream().mapToDouble(Double::doubleValue).toArray()
+        );
+    }
+
+    // Instante planejado (desde o início) da chegada de índice n: onde a integral da taxa
+    // chega a n + 0,5, resolvendo a quadrática do trecho linear. Nada sai enquanto a taxa é 0.
+    // Devolve -1 quando a chegada ficaria depois do fim da rampa
+    long arrivalNanos(long n) {
+        double target = n + 0.5;
+        for (int i = 1; i < arrivals.length; i++) {
+            if (target > arrivals[i]) {
+                continue;
+            }
+            double remaining = target - arrivals[i - 1];
+            double seconds = (offsetsNanos[i] - offsetsNanos[i - 1]) / 1e9;
+            double startRate = rates[i - 1];
+            double slope = (rates[i] - startRate) / seconds;
+            // t = 2r / (r0 + sqrt(r0² + 2kr)): estável com inclinação 0 e com taxa inicial 0
+            double elapsed = 2 * remaining
+                    / (startRate + Math.sqrt(Math.max(0, startRate * startRate + 2 * slope * remaining)));
+            return offsetsNanos[i - 1] + Math.min((long) (elapsed * 1e9), offsetsNanos[i] - offsetsNanos[i - 1]);
+        }
+        return -1;
+    }
+
+    long totalArrivals() {
+        return (long) Math.floor(arrivals[arrivals.length - 1] + 0.5);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < rates.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(Duration.ofNanos(offsetsNanos[i]).toMillis()).append("ms:").append(rates[i]);
+        }
+        return text.toString();
+    }
+}
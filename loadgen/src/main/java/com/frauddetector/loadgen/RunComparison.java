@@ -0,0 +1,51 @@
+package com.frauddetector.loadgen;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Compara o summary.csv de duas execuções: variação de cada percentil por endpoint/resultado
+final class RunComparison {
+
+    private RunComparison() {
+    }
+
+    static void compare(Path baseline, Path candidate, PrintStream out) throws IOException {
+        List<String> header = List.of(Files.readAllLines(baseline.resolve("summary.csv")).get(0).split(","));
+        Map<String, String[]> before = read(baseline);
+        Map<String, String[]> after = read(candidate);
+
+        out.printf("%s -> %s%n", baseline, candidate);
+        for (Map.Entry<String, String[]> entry : before.entrySet()) {
+            String[] other = after.get(entry.getKey());
+            if (other == null) {
+                out.printf("%-40s ausente na segunda execução%n", entry.getKey());
+                continue;
+            }
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-40s", entry.getKey()));
+            // Colunas a partir de throughput_rps
+            for (int column = 3; column < header.size(); column++) {
+                double a = Double.parseDouble(entry.getValue()[column]);
+                double b = Double.parseDouble(other[column]);
+                double change = a == 0 ? 0 : (b - a) / a * 100;
+                line.append(String.format(Locale.ROOT, "  %s %.2f -> %.2f (%+.1f%%)", header.get(column), a, b, change));
+            }
+            out.println(line);
+        }
+    }
+
+    private static Map<String, String[]> read(Path directory) throws IOException {
+        Map<String, String[]> rows = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(directory.resolve("summary.csv"));
+        for (String line : lines.subList(1, lines.size())) {
+            String[] columns = line.split(",");
+            rows.put(columns[0] + " " + columns[1], columns);
+        }
+        return rows;
+    }
+}
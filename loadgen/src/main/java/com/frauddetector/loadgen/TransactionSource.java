@@ -0,0 +1,7 @@
+package com.frauddetector.loadgen;
+
+// Corpo JSON da próxima transação a enviar; chamado só pela thread de agendamento
+interface TransactionSource {
+
+    String next();
+}
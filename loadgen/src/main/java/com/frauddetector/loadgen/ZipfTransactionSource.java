@@ -0,0 +1,48 @@
+package com.frauddetector.loadgen;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+// Transações sintéticas: usuários user1..userN com popularidade Zipf (poucos usuários
+// concentram a maior parte do tráfego), valores log-normais e país majoritariamente BRA
+final class ZipfTransactionSource implements TransactionSource {
+
+    private static final String[] OTHER_COUNTRIES = {"USA", "ARG", "PRT", "CHN"};
+
+    private final SplittableRandom random;
+    // cumulative[k] = P(rank <= k + 1)
+    private final double[] cumulative;
+
+    ZipfTransactionSource(int users, double exponent, long seed) {
+        this.random = new SplittableRandom(seed);
+        this.cumulative = new double[users];
+        double total = 0;
+        for (int rank = 1; rank <= users; rank++) {
+            total += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = total;
+        }
+        for (int i = 0; i < users; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    @Override
+    public String next() {
+        int rank = rank(random.nextDouble());
+        // Mediana perto de 75, com cauda longa de valores altos
+        double value = Math.exp(4.3 + 0.9 * gaussian());
+        String country = random.nextDouble() < 0.9 ? "BRA" : OTHER_COUNTRIES[random.nextInt(OTHER_COUNTRIES.length)];
+        return String.format(Locale.ROOT, "{\"userId\":\"user%d\",\"value\":%.2f,\"country\":\"%s\"}", rank, value, country);
+    }
+
+    private int rank(double u) {
+        int index = Arrays.binarySearch(cumulative, u);
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+
+    private double gaussian() {
+        // Box-Muller
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
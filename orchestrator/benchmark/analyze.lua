@@ -0,0 +1,4 @@
+-- Corpo fixo de POST /analyze usado pelo wrk2
+wrk.method = "POST"
+wrk.headers["Content-Type"] = "application/json"
+wrk.body = '{"userId": "user123", "value": 500.0}'
@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+#
+# Compara throughput e latência de POST /analyze com a inferência por HTTP/JSON
+# (orchestrator.scoring.engine=remote), por gRPC (chamadas unárias e stream compartilhado)
+# e em micro-lotes no /predict/batch. Mesmo jar, mesma taxa e mesmo número de núcleos
+# em todas as rodadas.
+#
+# Pré-requisitos: profile-service, inference-service (portas 8083 e 50051) e kafka rodando
+# (docker compose up) e o wrk2 (https://github.com/giltene/wrk2) no PATH.
+#
+# Uso: CPUS=2 RATE=3000 DURATION=60s ./benchmark/compare-inference-transports.sh
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CPUS=${CPUS:-2}
+RATE=${RATE:-2000}
+DURATION=${DURATION:-60s}
+WARMUP=${WARMUP:-20s}
+CONNECTIONS=${CONNECTIONS:-128}
+THREADS=${THREADS:-4}
+PORT=${PORT:-18081}
+WRK=${WRK:-wrk}
+PROFILE_URL=${PROFILE_URL:-http://localhost:8082}
+INFERENCE_URL=${INFERENCE_URL:-http://localhost:8083}
+INFERENCE_GRPC=${INFERENCE_GRPC:-localhost:50051}
+KAFKA=${KAFKA:-localhost:9094}
+RESULTS=benchmark/results
+
+mkdir -p "$RESULTS"
+
+./mvnw -q -B -DskipTests clean package
+cp target/orchestrator-*.jar "$RESULTS/orchestrator-transports.jar"
+
+run() {
+    local name=$1; shift
+
+    # O perfil de user123 fica no cache local, então a diferença entre as rodadas vem da inferência
+    taskset -c "0-$((CPUS - 1))" java -XX:ActiveProcessorCount="$CPUS" \
+        -jar "$RESULTS/orchestrator-transports.jar" \
+        --server.port="$PORT" \
+        --spring.kafka.bootstrap-servers="$KAFKA" \
+        --orchestrator.downstream.profile.base-url="$PROFILE_URL" \
+        --orchestrator.downstream.inference.base-url="$INFERENCE_URL" \
+        --orchestrator.scoring.grpc.target="$INFERENCE_GRPC" \
+        --orchestrator.scoring.grpc.fallback-to-json=false \
+        "$@" \
+        > "$RESULTS/$name.log" 2>&1 &
+    local pid=$!
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+    # Aquecimento do JIT e das conexões antes da medição
+    "$WRK" -t"$THREADS" -c"$CONNECTIONS" -d"$WARMUP" -R"$RATE" -s benchmark/analyze.lua \
+        "http://localhost:$PORT/analyze" > /dev/null
+    "$WRK" -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" -R"$RATE" -s benchmark/analyze.lua \
+        --latency "http://localhost:$PORT/analyze" > "$RESULTS/$name.txt"
+
+    # Latência só da chamada de inferência, medida pela política de resiliência
+    curl -s "http://localhost:$PORT/actuator/metrics/orchestrator.downstream.latency?tag=downstream:inference" \
+        > "$RESULTS/$name-inference.json"
+
+    kill "$pid"; wait "$pid" 2> /dev/null || true
+}
+
+summary() {
+    local name=$1
+    local rps p50 p99 p999
+    rps=$(awk '/Requests\/sec/ {print $2}' "$RESULTS/$name.txt")
+    p50=$(awk '$1 == "50.000%" {print $2}' "$RESULTS/$name.txt")
+    p99=$(awk '$1 == "99.000%" {print $2}' "$RESULTS/$name.txt")
+    p999=$(awk '$1 == "99.900%" {print $2}' "$RESULTS/$name.txt")
+    printf "%-12s %12s %10s %10s %10s\n" "$name" "$rps" "$p50" "$p99" "$p999"
+}
+
+run json --orchestrator.scoring.engine=remote
+run grpc-unary --orchestrator.scoring.engine=grpc --orchestrator.scoring.grpc.mode=unary
+run grpc-stream --orchestrator.scoring.engine=grpc --orchestrator.scoring.grpc.mode=stream
+run batch --orchestrator.scoring.engine=batch
+
+echo
+echo "CPUs: $CPUS  taxa alvo: $RATE req/s  duração: $DURATION"
+printf "%-12s %12s %10s %10s %10s\n" "transporte" "req/s" "p50" "p99" "p99.9"
+summary json
+summary grpc-unary
+summary grpc-stream
+summary batch
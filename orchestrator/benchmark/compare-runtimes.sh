@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+#
+# Compara throughput e p99 de POST /analyze entre o runtime reativo (Netty, padrão)
+# e o stack servlet anterior (Tomcat, perfil Maven "servlet"), com o mesmo número de núcleos.
+#
+# Pré-requisitos: profile-service, inference-service e kafka rodando (docker compose up)
+# e o wrk2 (https://github.com/giltene/wrk2) no PATH, já que a taxa de chegada é fixa (-R).
+#
+# Uso: CPUS=2 RATE=3000 DURATION=60s ./benchmark/compare-runtimes.sh
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CPUS=${CPUS:-2}
+RATE=${RATE:-2000}
+DURATION=${DURATION:-60s}
+WARMUP=${WARMUP:-20s}
+CONNECTIONS=${CONNECTIONS:-128}
+THREADS=${THREADS:-4}
+PORT=${PORT:-18081}
+WRK=${WRK:-wrk}
+PROFILE_URL=${PROFILE_URL:-http://localhost:8082}
+INFERENCE_URL=${INFERENCE_URL:-http://localhost:8083}
+KAFKA=${KAFKA:-localhost:9094}
+RESULTS=benchmark/results
+
+mkdir -p "$RESULTS"
+
+build() {
+    local name=$1; shift
+    ./mvnw -q -B -DskipTests clean package "$@"
+    cp target/orchestrator-*.jar "$RESULTS/orchestrator-$name.jar"
+}
+
+run() {
+    local name=$1 type=$2
+
+    taskset -c "0-$((CPUS - 1))" java -XX:ActiveProcessorCount="$CPUS" \
+        -jar "$RESULTS/orchestrator-$name.jar" \
+        --server.port="$PORT" \
+        --spring.main.web-application-type="$type" \
+        --spring.kafka.bootstrap-servers="$KAFKA" \
+        --orchestrator.downstream.profile.base-url="$PROFILE_URL" \
+        --orchestrator.downstream.inference.base-url="$INFERENCE_URL" \
+        > "$RESULTS/$name.log" 2>&1 &
+    local pid=$!
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+    # Aquecimento do JIT e dos pools antes da medição
+    "$WRK" -t"$THREADS" -c"$CONNECTIONS" -d"$WARMUP" -R"$RATE" -s benchmark/analyze.lua \
+        "http://localhost:$PORT/analyze" > /dev/null
+    "$WRK" -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" -R"$RATE" -s benchmark/analyze.lua \
+        --latency "http://localhost:$PORT/analyze" > "$RESULTS/$name.txt"
+
+    kill "$pid"; wait "$pid" 2> /dev/null || true
+}
+
+summary() {
+    local name=$1
+    local rps p99
+    rps=$(awk '/Requests\/sec/ {print $2}' "$RESULTS/$name.txt")
+    p99=$(awk '$1 == "99.000%" {print $2}' "$RESULTS/$name.txt")
+    printf "%-10s %12s %12s\n" "$name" "$rps" "$p99"
+}
+
+build netty
+run netty reactive
+
+build servlet -Pservlet
+run servlet servlet
+
+echo
+echo "CPUs: $CPUS  taxa alvo: $RATE req/s  duração: $DURATION"
+printf "%-10s %12s %12s\n" "runtime" "req/s" "p99"
+summary netty
+summary servlet
@@ -0,0 +1,23 @@
+package com.frauddetector.orchestrator.config;
+
+import com.frauddetector.orchestrator.kafka.PublisherSettings;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Tópico, fila em memória, lotes de envio e arquivo de contingência dos eventos de auditoria
+@ConfigurationProperties(prefix = "orchestrator.audit")
+public record AuditPublisherProperties(
+        @DefaultValue("fraud_analysis_events") String topic,
+        // Limite de consumidores paralelos no audit-service; só pode aumentar (remapeia as chaves)
+        @DefaultValue("12") int partitions,
+        @DefaultValue("1") short replicationFactor,
+        @DefaultValue("20000") int queueCapacity,
+        @DefaultValue("20000") int overflowCapacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("50ms") Duration pollTimeout,
+        @DefaultValue("audit-spill") String spillDirectory,
+        @DefaultValue("30s") Duration replayInterval,
+        @DefaultValue("60s") Duration replayAckTimeout
+) implements PublisherSettings {}
@@ -0,0 +1,11 @@
+package com.frauddetector.orchestrator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Paralelismo do /analyze/batch e tamanho dos lotes de auditoria enviados ao Kafka
+@ConfigurationProperties(prefix = "orchestrator.batch")
+public record BatchProperties(
+        @DefaultValue("64") int concurrency,
+        @DefaultValue("500") int auditChunkSize
+) {}
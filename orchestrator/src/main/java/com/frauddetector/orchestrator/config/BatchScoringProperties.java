@@ -0,0 +1,15 @@
+package com.frauddetector.orchestrator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Micro-batching das inferências (orchestrator.scoring.engine=batch)
+@ConfigurationProperties(prefix = "orchestrator.scoring.batch")
+public record BatchScoringProperties(
+        // O lote é enviado ao atingir este tamanho...
+        @DefaultValue("64") int maxBatchSize,
+        // ...ou quando o primeiro pedido do lote esperou este tempo (espera máxima adicionada)
+        @DefaultValue("2ms") Duration maxWait
+) {}
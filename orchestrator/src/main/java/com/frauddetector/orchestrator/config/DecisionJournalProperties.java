@@ -0,0 +1,18 @@
+package com.frauddetector.orchestrator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+// Diário de decisões: buffer circular em memória e arquivos JSONL rotativos
+@ConfigurationProperties(prefix = "orchestrator.journal")
+public record DecisionJournalProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("decision-journal") String directory,
+        // Entradas pré-alocadas (arredondado para potência de 2); com o buffer cheio, descarta
+        @DefaultValue("16384") int bufferSize,
+        @DefaultValue("64MB") DataSize maxFileSize,
+        @DefaultValue("20") int maxFiles,
+        // Fração das decisões que também registra o perfil usado na inferência
+        @DefaultValue("0.01") double verboseSampleRate
+) {}
@@ -0,0 +1,26 @@
+package com.frauddetector.orchestrator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Endereços, pools de conexão e timeouts dos serviços chamados no caminho crítico
+@ConfigurationProperties(prefix = "orchestrator.downstream")
+public record DownstreamProperties(
+        @DefaultValue Service profile,
+        @DefaultValue Service inference
+) {
+    public record Service(
+            String baseUrl,
+            @DefaultValue("200") int maxConnections,
+            @DefaultValue("1000") int pendingAcquireMaxCount,
+            @DefaultValue("500ms") Duration pendingAcquireTimeout,
+            @DefaultValue("30s") Duration maxIdleTime,
+            @DefaultValue("5m") Duration maxLifeTime,
+            @DefaultValue("500ms") Duration connectTimeout,
+            @DefaultValue("2s") Duration responseTimeout,
+            // HTTP/2 sem TLS; só deve ser ligado se o servidor aceitar h2c
+            @DefaultValue("false") boolean h2c
+    ) {}
+}
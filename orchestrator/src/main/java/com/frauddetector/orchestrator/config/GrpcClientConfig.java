@@ -0,0 +1,28 @@
+package com.frauddetector.orchestrator.config;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcClientInterceptor;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@ConditionalOnProperty(name = "orchestrator.scoring.engine", havingValue = "grpc")
+public class GrpcClientConfig {
+
+    // Uma única conexão HTTP/2 de longa duração; as chamadas são multiplexadas nela
+    @Bean(destroyMethod = "shutdownNow")
+    public ManagedChannel inferenceChannel(GrpcScoringProperties properties, ObservationRegistry observationRegistry) {
+        return ManagedChannelBuilder.forTarget(properties.target())
+                .usePlaintext()
+                .keepAliveTime(properties.keepAliveTime().toMillis(), TimeUnit.MILLISECONDS)
+                .keepAliveWithoutCalls(true)
+                // Propaga o trace da requisição nos metadados, como o WebClient faz nos headers
+                .intercept(new ObservationGrpcClientInterceptor(observationRegistry))
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.frauddetector.orchestrator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Transporte gRPC para o inference-service (orchestrator.scoring.engine=grpc)
+@ConfigurationProperties(prefix = "orchestrator.scoring.grpc")
+public record GrpcScoringProperties(
+        @DefaultValue("inference-service:50051") String target,
+        // unary: uma chamada por análise; stream: um stream bidirecional compartilhado
+        @DefaultValue("unary") Mode mode,
+        // Deadline repassado ao servidor em cada chamada unária
+        @DefaultValue("2s") Duration deadline,
+        @DefaultValue("30s") Duration keepAliveTime,
+        // Pedidos sem resposta no PredictStream (mode=stream); além disso o pedido falha na hora
+        @DefaultValue("1024") int streamMaxInFlight,
+        // Com o gRPC indisponível (UNAVAILABLE/UNIMPLEMENTED), usa o endpoint JSON
+        @DefaultValue("true") boolean fallbackToJson
+) {
+    public enum Mode { UNARY, STREAM }
+}
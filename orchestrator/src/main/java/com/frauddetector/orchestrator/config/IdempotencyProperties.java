@@ -0,0 +1,17 @@
+package com.frauddetector.orchestrator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Deduplicação de reenvios do /analyze pelo header Idempotency-Key
+@ConfigurationProperties(prefix = "orchestrator.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("true") boolean enabled,
+        // Implementação do IdempotencyStore: memory (local à instância)
+        @DefaultValue("memory") String store,
+        // Por quanto tempo a decisão de uma chave é devolvida aos reenvios
+        @DefaultValue("10m") Duration window,
+        @DefaultValue("100000") long maximumSize
+) {}
@@ -0,0 +1,45 @@
+package com.frauddetector.orchestrator.config;
+
+import com.frauddetector.events.AuditLogEvent;
+import com.frauddetector.events.AuditLogEventSerializer;
+import com.frauddetector.orchestrator.dto.TransactionEvent;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+@Configuration
+public class KafkaProducerConfig {
+
+    // Um único produtor para os dois tópicos: a auditoria sai no formato binário do
+    // event-schema e os eventos de transação continuam em JSON para o profile-service
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer eventSerializers() {
+        DelegatingByTypeSerializer serializer = new DelegatingByTypeSerializer(Map.of(
+                AuditLogEvent.class, new AuditLogEventSerializer(),
+                TransactionEvent.class, new JsonSerializer<>()
+        ));
+        return producerFactory -> useValueSerializer(producerFactory, serializer);
+    }
+
+    // Criado pelo KafkaAdmin na partida; se o tópico já existe com menos partições, elas são aumentadas
+    @Bean
+    public NewTopic auditTopic(AuditPublisherProperties properties) {
+        return TopicBuilder.name(properties.topic())
+                .partitions(properties.partitions())
+                .replicas(properties.replicationFactor())
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void useValueSerializer(DefaultKafkaProducerFactory<?, ?> producerFactory,
+                                           DelegatingByTypeSerializer serializer) {
+        ((DefaultKafkaProducerFactory<?, Object>) producerFactory).setValueSerializer(serializer);
+    }
+}
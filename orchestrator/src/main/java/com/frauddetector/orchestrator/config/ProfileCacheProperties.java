@@ -0,0 +1,15 @@
+package com.frauddetector.orchestrator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Limites do cache local de perfis de usuário
+@ConfigurationProperties(prefix = "orchestrator.profile-cache")
+public record ProfileCacheProperties(
+        @DefaultValue("100000") long maximumSize,
+        @DefaultValue("5m") Duration expireAfterWrite,
+        @DefaultValue("1m") Duration refreshAfterWrite,
+        @DefaultValue("profile_change_events") String invalidationTopic
+) {}
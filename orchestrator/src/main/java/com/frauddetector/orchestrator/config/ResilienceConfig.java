@@ -0,0 +1,60 @@
+package com.frauddetector.orchestrator.config;
+
+import com.frauddetector.orchestrator.resilience.DownstreamPolicy;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        // Estado, taxas de falha/lentidão e chamadas rejeitadas em resilience4j.circuitbreaker.*
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public DownstreamPolicy profilePolicy(
+            ResilienceProperties properties,
+            CircuitBreakerRegistry registry,
+            MeterRegistry meterRegistry
+    ) {
+        return policy("profile-service", properties.profile(), registry, meterRegistry);
+    }
+
+    @Bean
+    public DownstreamPolicy inferencePolicy(
+            ResilienceProperties properties,
+            CircuitBreakerRegistry registry,
+            MeterRegistry meterRegistry
+    ) {
+        return policy("inference-service", properties.inference(), registry, meterRegistry);
+    }
+
+    private static DownstreamPolicy policy(
+            String name,
+            ResilienceProperties.Policy policy,
+            CircuitBreakerRegistry registry,
+            MeterRegistry meterRegistry
+    ) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(policy.slidingWindowSize())
+                .minimumNumberOfCalls(policy.minimumNumberOfCalls())
+                .failureRateThreshold(policy.failureRateThreshold())
+                .slowCallRateThreshold(policy.slowCallRateThreshold())
+                .slowCallDurationThreshold(policy.slowCallDuration())
+                .waitDurationInOpenState(policy.waitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(policy.permittedCallsInHalfOpen())
+                .recordException(DownstreamPolicy::isDownstreamFailure)
+                .build();
+
+        return new DownstreamPolicy(name, policy, registry.circuitBreaker(name, config), meterRegistry);
+    }
+}
@@ -0,0 +1,39 @@
+package com.frauddetector.orchestrator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Políticas de timeout, hedge e circuit breaker por serviço, e a decisão degradada
+@ConfigurationProperties(prefix = "orchestrator.resilience")
+public record ResilienceProperties(
+        @DefaultValue Policy profile,
+        @DefaultValue Policy inference,
+        @DefaultValue Degraded degraded
+) {
+    public record Policy(
+            // Tempo máximo da chamada, somando a requisição original e o hedge
+            @DefaultValue("800ms") Duration timeout,
+            // Dispara uma segunda requisição se a primeira passar do percentil de latência
+            @DefaultValue("true") boolean hedgeEnabled,
+            @DefaultValue("0.95") double hedgePercentile,
+            @DefaultValue("10ms") Duration hedgeMinDelay,
+            // Circuit breaker: abre por taxa de erro ou de chamadas lentas
+            @DefaultValue("50") float failureRateThreshold,
+            @DefaultValue("80") float slowCallRateThreshold,
+            @DefaultValue("500ms") Duration slowCallDuration,
+            @DefaultValue("100") int slidingWindowSize,
+            @DefaultValue("20") int minimumNumberOfCalls,
+            @DefaultValue("10s") Duration waitInOpenState,
+            @DefaultValue("5") int permittedCallsInHalfOpen
+    ) {}
+
+    public record Degraded(
+            // Se desligado, a falha do serviço é propagada como erro
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("REVIEW") String action,
+            // Score devolvido quando não foi possível calcular o risco
+            @DefaultValue("-1") double riskScore
+    ) {}
+}
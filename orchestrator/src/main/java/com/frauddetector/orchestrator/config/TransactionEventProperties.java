@@ -0,0 +1,21 @@
+package com.frauddetector.orchestrator.config;
+
+import com.frauddetector.orchestrator.kafka.PublisherSettings;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Eventos de transação analisada, consumidos pelo profile-service para manter os perfis
+@ConfigurationProperties(prefix = "orchestrator.transaction-events")
+public record TransactionEventProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("transaction_events") String topic,
+        @DefaultValue("20000") int queueCapacity,
+        @DefaultValue("20000") int overflowCapacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("50ms") Duration pollTimeout,
+        @DefaultValue("transaction-spill") String spillDirectory,
+        @DefaultValue("30s") Duration replayInterval,
+        @DefaultValue("60s") Duration replayAckTimeout
+) implements PublisherSettings {}
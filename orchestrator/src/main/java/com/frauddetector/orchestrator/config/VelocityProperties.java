@@ -0,0 +1,16 @@
+package com.frauddetector.orchestrator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Contadores de velocidade por usuário (último minuto, hora e dia) e seus snapshots em disco
+@ConfigurationProperties(prefix = "orchestrator.velocity")
+public record VelocityProperties(
+        @DefaultValue("true") boolean enabled,
+        // Usuários acompanhados; acima disso os menos recentes são descartados
+        @DefaultValue("500000") long maximumUsers,
+        @DefaultValue("velocity-snapshot") String snapshotDirectory,
+        @DefaultValue("1m") Duration snapshotInterval
+) {}
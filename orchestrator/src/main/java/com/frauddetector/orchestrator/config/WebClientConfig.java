@@ -0,0 +1,79 @@
+package com.frauddetector.orchestrator.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class WebClientConfig {
+
+    // Cada serviço tem seu próprio pool, para que a lentidão de um não esgote as conexões do outro
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider profileConnectionProvider(DownstreamProperties properties) {
+        return connectionProvider("profile-service", properties.profile());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider inferenceConnectionProvider(DownstreamProperties properties) {
+        return connectionProvider("inference-service", properties.inference());
+    }
+
+    @Bean
+    public WebClient profileWebClient(
+            WebClient.Builder builder,
+            DownstreamProperties properties,
+            ConnectionProvider profileConnectionProvider
+    ) {
+        return webClient(builder, properties.profile(), profileConnectionProvider);
+    }
+
+    @Bean
+    public WebClient inferenceWebClient(
+            WebClient.Builder builder,
+            DownstreamProperties properties,
+            ConnectionProvider inferenceConnectionProvider
+    ) {
+        return webClient(builder, properties.inference(), inferenceConnectionProvider);
+    }
+
+    private static ConnectionProvider connectionProvider(String name, DownstreamProperties.Service service) {
+        return ConnectionProvider.builder(name)
+                .maxConnections(service.maxConnections())
+                .pendingAcquireMaxCount(service.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(service.pendingAcquireTimeout())
+                .maxIdleTime(service.maxIdleTime())
+                .maxLifeTime(service.maxLifeTime())
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    private static WebClient webClient(
+            WebClient.Builder builder,
+            DownstreamProperties.Service service,
+            ConnectionProvider connectionProvider
+    ) {
+        HttpProtocol[] protocols = service.h2c()
+                ? new HttpProtocol[] {HttpProtocol.H2C, HttpProtocol.HTTP11}
+                : new HttpProtocol[] {HttpProtocol.HTTP11};
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .protocol(protocols)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) service.connectTimeout().toMillis())
+                .option(ChannelOption.TCP_NODELAY, true)
+                .responseTimeout(service.responseTimeout());
+
+        // O builder do Spring é clonado para manter codecs e instrumentação configurados pelo Boot
+        return builder.clone()
+                .baseUrl(service.baseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -1,89 +1,208 @@
 package com.frauddetector.orchestrator.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frauddetector.events.AuditLogEvent;
+import com.frauddetector.orchestrator.config.BatchProperties;
+import com.frauddetector.orchestrator.config.IdempotencyProperties;
 import com.frauddetector.orchestrator.dto.*;
+import com.frauddetector.orchestrator.idempotency.IdempotencyRecord;
+import com.frauddetector.orchestrator.idempotency.IdempotencyStore;
+import com.frauddetector.orchestrator.metrics.AnalysisMetrics;
+import com.frauddetector.orchestrator.service.FraudAnalysisService;
 import com.frauddetector.orchestrator.service.KafkaProducerService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.frauddetector.orchestrator.service.TransactionEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/analyze")
 public class FraudController {
-    
-    private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    private final WebClient profileWebClient;
-    private final WebClient inferenceWebClient;
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final FraudAnalysisService fraudAnalysisService;
     private final KafkaProducerService kafkaProducer;
+    private final TransactionEventPublisher transactionEvents;
+    private final BatchProperties batchProperties;
+    private final AnalysisMetrics analysisMetrics;
+    private final IdempotencyStore idempotencyStore;
+    private final IdempotencyProperties idempotencyProperties;
+    private final ObjectMapper objectMapper;
 
     public FraudController(
-            WebClient.Builder webClientBuilder,
-            KafkaProducerService kafkaProducer
+            FraudAnalysisService fraudAnalysisService,
+            KafkaProducerService kafkaProducer,
+            TransactionEventPublisher transactionEvents,
+            BatchProperties batchProperties,
+            AnalysisMetrics analysisMetrics,
+            IdempotencyStore idempotencyStore,
+            IdempotencyProperties idempotencyProperties,
+            ObjectMapper objectMapper
     ) {
-        this.profileWebClient = webClientBuilder.baseUrl("http://profile-service:8082").build();
-        this.inferenceWebClient = webClientBuilder.baseUrl("http://inference-service:8083").build();
+        this.fraudAnalysisService = fraudAnalysisService;
         this.kafkaProducer = kafkaProducer;
+        this.transactionEvents = transactionEvents;
+        this.batchProperties = batchProperties;
+        this.analysisMetrics = analysisMetrics;
+        this.idempotencyStore = idempotencyStore;
+        this.idempotencyProperties = idempotencyProperties;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    public Mono<Map<String, Object>> analyzeFraud(@RequestBody(required = false) TransactionDTO transaction) {
-        logger.info(">>> Requisição recebida: {}", transaction);
-
-        // Chama o serviço de perfil
-        return this.profileWebClient.get()
-            .uri("/profiles/{userId}", transaction.userId())
-            .retrieve()
-            .bodyToMono(UserProfileDTO.class)
-            .flatMap(userProfile -> {
-                logger.info(">>> Perfil recebido: {}", userProfile);
-
-                // Prepara o corpo da requisição para o serviço de inferência
-                AnalysisRequestDTO analysisRequest = new AnalysisRequestDTO(
-                    transaction.userId(),
-                    transaction.value(),
-                    userProfile.transactionCount(),
-                    userProfile.averageAmount(),
-                    userProfile.lastTransactionCountry()
-                );
-
-                // Chama o serviço de inferência com os dados enriquecidos
-                return this.inferenceWebClient.post()
-                    .uri("/predict")
-                    .bodyValue(analysisRequest)
-                    .retrieve()
-                    .bodyToMono(AnalysisResponseDTO.class)
-                    .map(analysisResponse -> {
-                        logger.info(">>> Inferência recebida: {}", analysisResponse);
-                        String action;
-                        switch (analysisResponse.recommendedAction()) {
-                            case "APPROVE" -> action = "Transação aprovada.";
-                            case "DECLINE" -> action = "Transação rejeitada.";
-                            case "REVIEW" -> action = "Transação em revisão.";
-                            default -> action = "Ação desconhecida.";
-                        }
-                        logger.info(">>> Resultado: {}", action);
-
-                        // Monta e retorna a resposta final
-                        return Map.of(
-                            "status", "ANALYSIS_COMPLETE",
-                            "riskAnalysis", analysisResponse
-                        );
-                    })
-                    // Envia o evento de auditoria de forma assíncrona
-                    .doOnSuccess(responseMap -> {
-                        AuditLogEvent event = new AuditLogEvent(
-                                (String) responseMap.get("status"),
-                                (AnalysisResponseDTO) responseMap.get("riskAnalysis")
-                        );
-                        kafkaProducer.sendAuditEvent(event);
-                    });
+    public Mono<Map<String, Object>> analyzeFraud(
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody(required = false) TransactionDTO transaction
+    ) {
+        if (!idempotencyProperties.enabled() || idempotencyKey == null || idempotencyKey.isBlank()) {
+            return analyzeAndPublish(transaction).map(FraudController::toResponse);
+        }
+
+        // Reenvios com a mesma chave recebem a decisão original, sem nova análise nem
+        // novos eventos de auditoria
+        return idempotencyStore.execute(idempotencyKey, () -> analyzeAndPublish(transaction)
+                .map(outcome -> new IdempotencyRecord(transaction, outcome)))
+            .flatMap(record -> {
+                if (!record.transaction().equals(transaction)) {
+                    return Mono.error(new ResponseStatusException(
+                        HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key já usada com outra transação"
+                    ));
+                }
+                return Mono.just(toResponse(record.outcome()));
             });
     }
+
+    // Recebe transações em NDJSON e devolve cada resultado assim que fica pronto,
+    // com no máximo `orchestrator.batch.concurrency` análises em andamento. O corpo é lido
+    // linha a linha e cada uma é decodificada à parte: uma linha inválida vira um resultado
+    // ANALYSIS_FAILED com o seu índice, sem derrubar o stream
+    @PostMapping(
+            value = "/batch",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public Flux<BatchAnalysisResultDTO> analyzeBatch(@RequestBody Flux<String> lines) {
+        int auditChunkSize = batchProperties.auditChunkSize();
+
+        return Flux.defer(() -> {
+            // Eventos de auditoria acumulados e enviados em lote ao Kafka
+            List<AuditLogEvent> pendingEvents = new ArrayList<>(auditChunkSize);
+            Consumer<AuditLogEvent> audit = event -> {
+                synchronized (pendingEvents) {
+                    pendingEvents.add(event);
+                    if (pendingEvents.size() >= auditChunkSize) {
+                        flushAuditEvents(pendingEvents);
+                    }
+                }
+            };
+
+            return lines.filter(line -> !line.isBlank())
+                .index()
+                .flatMap(
+                    indexed -> analyzeBatchLine(indexed.getT1(), indexed.getT2(), audit),
+                    batchProperties.concurrency()
+                )
+                .doFinally(signal -> {
+                    synchronized (pendingEvents) {
+                        flushAuditEvents(pendingEvents);
+                    }
+                });
+        });
+    }
+
+    private Mono<AnalysisOutcome> analyzeAndPublish(TransactionDTO transaction) {
+        return fraudAnalysisService.analyze(transaction)
+            .doOnNext(outcome -> analysisMetrics.timeStage(AnalysisMetrics.STAGE_PUBLISH, () -> {
+                // Envia o evento de auditoria de forma assíncrona
+                kafkaProducer.sendAuditEvent(auditEvent(transaction, outcome));
+                // Alimenta a agregação incremental de perfis no profile-service
+                transactionEvents.publish(transaction, outcome);
+            }));
+    }
+
+    private static Map<String, Object> toResponse(AnalysisOutcome outcome) {
+        if (outcome.isDegraded()) {
+            return Map.of(
+                "status", outcome.status(),
+                "riskAnalysis", outcome.riskAnalysis(),
+                "degradedReason", outcome.degradedReason()
+            );
+        }
+        return Map.of(
+            "status", outcome.status(),
+            "riskAnalysis", outcome.riskAnalysis()
+        );
+    }
+
+    private Mono<BatchAnalysisResultDTO> analyzeBatchLine(long index, String line, Consumer<AuditLogEvent> audit) {
+        TransactionDTO transaction;
+        try {
+            transaction = objectMapper.readValue(line, TransactionDTO.class);
+        } catch (JsonProcessingException e) {
+            return Mono.just(BatchAnalysisResultDTO.failed(index, null, "Linha inválida: " + e.getOriginalMessage()));
+        }
+        if (transaction == null) {
+            return Mono.just(BatchAnalysisResultDTO.failed(index, null, "Linha inválida: null"));
+        }
+        return analyzeBatchItem(index, transaction, audit);
+    }
+
+    private Mono<BatchAnalysisResultDTO> analyzeBatchItem(
+            long index,
+            TransactionDTO transaction,
+            Consumer<AuditLogEvent> audit
+    ) {
+        // Falhas de um item voltam na própria linha, sem interromper o stream
+        return fraudAnalysisService.analyze(transaction)
+            .doOnNext(outcome -> {
+                audit.accept(auditEvent(transaction, outcome));
+                transactionEvents.publish(transaction, outcome);
+            })
+            .map(outcome -> BatchAnalysisResultDTO.completed(index, transaction.userId(), outcome))
+            .defaultIfEmpty(BatchAnalysisResultDTO.failed(index, transaction.userId(), "Resposta vazia"))
+            .onErrorResume(error -> Mono.just(
+                BatchAnalysisResultDTO.failed(index, transaction.userId(), String.valueOf(error.getMessage()))
+            ));
+    }
+
+    private static AuditLogEvent auditEvent(TransactionDTO transaction, AnalysisOutcome outcome) {
+        String transactionId = transaction.transactionId() != null
+            ? transaction.transactionId()
+            : generatedTransactionId();
+        return new AuditLogEvent(
+            transactionId, transaction.userId(), transaction.value(), outcome.status(), outcome.riskAnalysis()
+        );
+    }
+
+    // UUID aleatório com ThreadLocalRandom: evita a contenção do SecureRandom de UUID.randomUUID()
+    private static String generatedTransactionId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(most, least).toString();
+    }
+
+    private void flushAuditEvents(List<AuditLogEvent> pendingEvents) {
+        if (pendingEvents.isEmpty()) {
+            return;
+        }
+        kafkaProducer.sendAuditEvents(List.copyOf(pendingEvents));
+        pendingEvents.clear();
+    }
 }
\ No newline at end of file
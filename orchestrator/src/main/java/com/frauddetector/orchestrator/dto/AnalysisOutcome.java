@@ -0,0 +1,26 @@
+package com.frauddetector.orchestrator.dto;
+
+import com.frauddetector.events.AnalysisResponseDTO;
+
+// Resultado interno de uma análise. Quando o perfil ou a inferência falham, a
+// decisão é degradada (ação conservadora) e o motivo fica registrado.
+public record AnalysisOutcome(
+        String status,
+        AnalysisResponseDTO riskAnalysis,
+        String degradedReason
+) {
+    public static final String COMPLETE = "ANALYSIS_COMPLETE";
+    public static final String DEGRADED = "ANALYSIS_DEGRADED";
+
+    public static AnalysisOutcome completed(AnalysisResponseDTO riskAnalysis) {
+        return new AnalysisOutcome(COMPLETE, riskAnalysis, null);
+    }
+
+    public static AnalysisOutcome degraded(AnalysisResponseDTO riskAnalysis, String reason) {
+        return new AnalysisOutcome(DEGRADED, riskAnalysis, reason);
+    }
+
+    public boolean isDegraded() {
+        return degradedReason != null;
+    }
+}
@@ -7,7 +7,14 @@ public record AnalysisRequestDTO(
         Double value,
         int transactionCount,
         double averageAmount,
-        String lastTransactionCountry
+        String lastTransactionCountry,
+        // Janelas de velocidade do usuário, já incluindo esta transação
+        long transactionsLastMinute,
+        double amountLastMinute,
+        long transactionsLastHour,
+        double amountLastHour,
+        long transactionsLastDay,
+        double amountLastDay
 ) {
     @NonNull
     @Override
@@ -18,6 +25,12 @@ public record AnalysisRequestDTO(
                 ", transactionCount=" + transactionCount +
                 ", averageAmount=" + averageAmount +
                 ", lastTransactionCountry='" + lastTransactionCountry + '\'' +
+                ", transactionsLastMinute=" + transactionsLastMinute +
+                ", amountLastMinute=" + amountLastMinute +
+                ", transactionsLastHour=" + transactionsLastHour +
+                ", amountLastHour=" + amountLastHour +
+                ", transactionsLastDay=" + transactionsLastDay +
+                ", amountLastDay=" + amountLastDay +
                 '}';
     }
 }
@@ -1,6 +0,0 @@
-package com.frauddetector.orchestrator.dto;
-
-public record AuditLogEvent(
-    String status,
-    AnalysisResponseDTO riskAnalysis
-) {}
@@ -0,0 +1,26 @@
+package com.frauddetector.orchestrator.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.frauddetector.events.AnalysisResponseDTO;
+
+// Uma linha da resposta NDJSON de /analyze/batch. O índice é a posição da
+// transação na entrada, já que os resultados saem na ordem em que terminam.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchAnalysisResultDTO(
+        long index,
+        String userId,
+        String status,
+        AnalysisResponseDTO riskAnalysis,
+        String degradedReason,
+        String error
+) {
+    public static BatchAnalysisResultDTO completed(long index, String userId, AnalysisOutcome outcome) {
+        return new BatchAnalysisResultDTO(
+                index, userId, outcome.status(), outcome.riskAnalysis(), outcome.degradedReason(), null
+        );
+    }
+
+    public static BatchAnalysisResultDTO failed(long index, String userId, String error) {
+        return new BatchAnalysisResultDTO(index, userId, "ANALYSIS_FAILED", null, null, error);
+    }
+}
@@ -4,7 +4,11 @@ import org.springframework.lang.NonNull;
 
 public record TransactionDTO(
         String userId,
-        Double value
+        Double value,
+        // Opcional: país da transação, repassado ao perfil do usuário
+        String country,
+        // Opcional: identificador da transação no cliente; sem ele o orquestrador gera um para a auditoria
+        String transactionId
 ) {
     @NonNull
     @Override
@@ -12,6 +16,8 @@ public record TransactionDTO(
         return "TransactionDTO{" +
                 "userId='" + userId + '\'' +
                 ", value=" + value +
+                ", country='" + country + '\'' +
+                ", transactionId='" + transactionId + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.frauddetector.orchestrator.dto;
+
+import java.time.Instant;
+
+// Transação analisada, publicada com o userId como chave
+public record TransactionEvent(
+    String userId,
+    double value,
+    String country,
+    String recommendedAction,
+    Instant timestamp
+) {}
@@ -0,0 +1,11 @@
+package com.frauddetector.orchestrator.idempotency;
+
+import com.frauddetector.orchestrator.dto.AnalysisOutcome;
+import com.frauddetector.orchestrator.dto.TransactionDTO;
+
+// Decisão guardada para uma chave, junto com a transação que a gerou, para que a
+// mesma chave reaproveitada com outra transação possa ser recusada
+public record IdempotencyRecord(
+        TransactionDTO transaction,
+        AnalysisOutcome outcome
+) {}
@@ -0,0 +1,16 @@
+package com.frauddetector.orchestrator.idempotency;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+// Guarda a decisão de cada Idempotency-Key durante a janela configurada.
+// A implementação é escolhida por `orchestrator.idempotency.store`; um store
+// compartilhado entre instâncias só precisa respeitar o mesmo contrato.
+public interface IdempotencyStore {
+
+    // Devolve a decisão já registrada para a chave ou executa a análise. Requisições
+    // concorrentes com a mesma chave aguardam a mesma execução em vez de iniciar outra.
+    // Decisões degradadas e falhas não são guardadas, para que o reenvio tente de novo.
+    Mono<IdempotencyRecord> execute(String key, Supplier<Mono<IdempotencyRecord>> analysis);
+}
@@ -0,0 +1,70 @@
+package com.frauddetector.orchestrator.idempotency;
+
+import com.frauddetector.orchestrator.config.IdempotencyProperties;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+// Store local: cache limitado por tamanho, com expiração contada a partir da decisão.
+// Enquanto a análise está em andamento a entrada guarda o future, e os duplicados
+// se juntam a ele.
+@Component
+@ConditionalOnProperty(name = "orchestrator.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class MemoryIdempotencyStore implements IdempotencyStore {
+
+    private final AsyncCache<String, IdempotencyRecord> cache;
+    private final Counter executed;
+    private final Counter reused;
+
+    public MemoryIdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.window())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "idempotency");
+
+        this.executed = requestCounter(meterRegistry, "executed");
+        this.reused = requestCounter(meterRegistry, "reused");
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> execute(String key, Supplier<Mono<IdempotencyRecord>> analysis) {
+        return Mono.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            CompletableFuture<IdempotencyRecord> future = cache.get(key, (k, executor) -> {
+                started.set(true);
+                return analysis.get().toFuture();
+            });
+
+            if (started.get()) {
+                executed.increment();
+                // Futures com erro saem do cache sozinhos; as decisões degradadas, aqui
+                future.thenAccept(record -> {
+                    if (record != null && record.outcome().isDegraded()) {
+                        cache.asMap().remove(key, future);
+                    }
+                });
+            } else {
+                reused.increment();
+            }
+            // suppressCancel: a desconexão de um chamador não cancela a análise compartilhada
+            return Mono.fromFuture(future, true);
+        });
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("orchestrator.idempotency.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,192 @@
+package com.frauddetector.orchestrator.journal;
+
+import com.frauddetector.orchestrator.config.DecisionJournalProperties;
+import com.frauddetector.orchestrator.dto.AnalysisOutcome;
+import com.frauddetector.orchestrator.dto.TransactionDTO;
+import com.frauddetector.orchestrator.dto.UserProfileDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Diário de decisões: cada análise vira uma entrada de esquema fixo em um buffer circular
+// pré-alocado. A thread da requisição só reserva uma posição (CAS) e copia referências;
+// a serialização e a escrita em disco ficam com uma thread dedicada. Com o buffer cheio
+// a entrada é descartada e contada, nunca bloqueia a requisição.
+@Component
+public class DecisionJournal implements SmartLifecycle {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final DecisionJournalProperties properties;
+    private final JournalEntry[] entries;
+    private final int mask;
+    // Próxima sequência a reservar pelos produtores e próxima a gravar pela thread de escrita
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+
+    private final Counter writtenEntries;
+    private final Counter droppedEntries;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public DecisionJournal(DecisionJournalProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        int capacity = Integer.highestOneBit(Math.max(2, properties.bufferSize() - 1)) << 1;
+        this.entries = new JournalEntry[capacity];
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new JournalEntry();
+        }
+        this.mask = capacity - 1;
+
+        this.writtenEntries = entryCounter(meterRegistry, "written");
+        this.droppedEntries = entryCounter(meterRegistry, "dropped");
+        Gauge.builder("orchestrator.journal.backlog", this, journal -> journal.claimed.get() - journal.consumed.get())
+                .register(meterRegistry);
+    }
+
+    // O perfil só é guardado nas entradas amostradas (orchestrator.journal.verbose-sample-rate)
+    public void record(TransactionDTO transaction, UserProfileDTO profile, AnalysisOutcome outcome, long startNanos) {
+        if (!running) {
+            return;
+        }
+
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed.get() >= entries.length) {
+                droppedEntries.increment();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        JournalEntry entry = entries[(int) (sequence & mask)];
+        entry.timestampMillis = System.currentTimeMillis();
+        entry.latencyNanos = System.nanoTime() - startNanos;
+        if (transaction != null) {
+            entry.userId = transaction.userId();
+            entry.value = transaction.value();
+            entry.country = transaction.country();
+        }
+        entry.status = outcome.status();
+        entry.action = outcome.riskAnalysis().recommendedAction();
+        entry.riskScore = outcome.riskAnalysis().riskScore();
+        entry.degradedReason = outcome.degradedReason();
+        if (profile != null && ThreadLocalRandom.current().nextDouble() < properties.verboseSampleRate()) {
+            entry.profile = profile;
+        }
+        // Escrita volátil: publica os campos acima para a thread de gravação
+        entry.sequence = sequence;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled() || running) {
+            return;
+        }
+        JournalFileWriter writer;
+        try {
+            writer = new JournalFileWriter(
+                    Path.of(properties.directory()), properties.maxFileSize().toBytes(), properties.maxFiles()
+            );
+        } catch (IOException e) {
+            logger.error(">>> Diário de decisões desativado: diretório {} indisponível", properties.directory(), e);
+            return;
+        }
+        running = true;
+        writerThread = Thread.ofPlatform()
+                .name("decision-journal")
+                .daemon(true)
+                .start(() -> runWriter(writer));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Para depois do servidor web, para gravar as decisões das últimas requisições
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private void runWriter(JournalFileWriter writer) {
+        long next = consumed.get();
+        boolean dirty = false;
+
+        // Ao parar, grava o que já foi reservado antes de fechar o arquivo
+        while (running || next < claimed.get()) {
+            JournalEntry entry = entries[(int) (next & mask)];
+            if (entry.sequence != next) {
+                // Nada publicado: descarrega o buffer do arquivo uma vez e espera
+                if (dirty) {
+                    flush(writer);
+                    dirty = false;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            try {
+                writer.write(entry);
+                writtenEntries.increment();
+                dirty = true;
+            } catch (IOException e) {
+                droppedEntries.increment();
+                logger.warn(">>> Falha ao gravar no diário de decisões: {}", e.getMessage());
+            }
+            entry.clear();
+            next++;
+            consumed.set(next);
+        }
+
+        flush(writer);
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.warn(">>> Falha ao fechar o diário de decisões: {}", e.getMessage());
+        }
+    }
+
+    private void flush(JournalFileWriter writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            logger.warn(">>> Falha ao descarregar o diário de decisões: {}", e.getMessage());
+        }
+    }
+
+    private Counter entryCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("orchestrator.journal.entries")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.frauddetector.orchestrator.journal;
+
+import com.frauddetector.orchestrator.dto.UserProfileDTO;
+
+// Posição do buffer circular, reutilizada a cada volta. Os campos são escritos pela
+// thread da requisição antes de publicar a sequência e lidos pela thread de gravação depois.
+final class JournalEntry {
+
+    // Sequência publicada nesta posição (-1 = nunca usada)
+    volatile long sequence = -1;
+
+    long timestampMillis;
+    long latencyNanos;
+    String userId;
+    Double value;
+    String country;
+    String status;
+    String action;
+    double riskScore;
+    String degradedReason;
+    // Só nas entradas amostradas
+    UserProfileDTO profile;
+
+    void clear() {
+        userId = null;
+        value = null;
+        country = null;
+        status = null;
+        action = null;
+        degradedReason = null;
+        profile = null;
+    }
+}
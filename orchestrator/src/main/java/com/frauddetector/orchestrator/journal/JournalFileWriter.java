@@ -0,0 +1,127 @@
+package com.frauddetector.orchestrator.journal;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// Grava as entradas como JSON Lines, uma linha por decisão e sempre os mesmos campos.
+// Troca de arquivo ao passar de maxFileBytes e mantém só os maxFiles mais recentes.
+// Usado apenas pela thread de gravação do DecisionJournal.
+final class JournalFileWriter implements Closeable {
+
+    private static final String PREFIX = "decisions-";
+    private static final String SUFFIX = ".jsonl";
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+
+    // A linha é montada em um buffer reutilizado e copiada para o arquivo
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(512);
+    private final JsonGenerator generator;
+
+    private OutputStream out;
+    private long fileBytes;
+
+    JournalFileWriter(Path directory, long maxFileBytes, int maxFiles) throws IOException {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.generator = new JsonFactory().createGenerator(line, JsonEncoding.UTF8);
+        Files.createDirectories(directory);
+    }
+
+    void write(JournalEntry entry) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("ts", Instant.ofEpochMilli(entry.timestampMillis).toString());
+        generator.writeNumberField("latencyMicros", entry.latencyNanos / 1_000);
+        generator.writeStringField("userId", entry.userId);
+        if (entry.value == null) {
+            generator.writeNullField("value");
+        } else {
+            generator.writeNumberField("value", entry.value);
+        }
+        generator.writeStringField("country", entry.country);
+        generator.writeStringField("status", entry.status);
+        generator.writeStringField("action", entry.action);
+        generator.writeNumberField("riskScore", entry.riskScore);
+        generator.writeStringField("degradedReason", entry.degradedReason);
+        if (entry.profile == null) {
+            generator.writeNullField("profile");
+        } else {
+            generator.writeObjectFieldStart("profile");
+            generator.writeNumberField("transactionCount", entry.profile.transactionCount());
+            generator.writeNumberField("averageAmount", entry.profile.averageAmount());
+            generator.writeStringField("lastTransactionCountry", entry.profile.lastTransactionCountry());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.flush();
+
+        if (out == null || fileBytes + line.size() > maxFileBytes) {
+            roll();
+        }
+        line.writeTo(out);
+        fileBytes += line.size();
+        line.reset();
+    }
+
+    void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        close();
+        Path file = directory.resolve(PREFIX + FILE_TIMESTAMP.format(Instant.now()) + SUFFIX);
+        out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024);
+        fileBytes = 0;
+        deleteOldFiles();
+    }
+
+    // O nome começa pelo horário de criação, então a ordem alfabética é a cronológica
+    private void deleteOldFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            try {
+                Files.deleteIfExists(files.get(i));
+            } catch (IOException e) {
+                logger.warn(">>> Não foi possível remover o arquivo antigo do diário {}", files.get(i), e);
+            }
+        }
+    }
+}
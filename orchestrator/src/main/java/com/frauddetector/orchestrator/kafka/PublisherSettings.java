@@ -0,0 +1,25 @@
+package com.frauddetector.orchestrator.kafka;
+
+import java.time.Duration;
+
+// Configuração comum aos publicadores com fila e arquivo de contingência
+public interface PublisherSettings {
+
+    String topic();
+
+    int queueCapacity();
+
+    // Eventos que chegam com a fila cheia esperam aqui a thread do publicador gravá-los
+    // no arquivo; acima disso são descartados
+    int overflowCapacity();
+
+    int batchSize();
+
+    Duration pollTimeout();
+
+    String spillDirectory();
+
+    Duration replayInterval();
+
+    Duration replayAckTimeout();
+}
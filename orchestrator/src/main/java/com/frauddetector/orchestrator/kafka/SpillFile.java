@@ -0,0 +1,141 @@
+package com.frauddetector.orchestrator.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Arquivo local, somente de acréscimo (JSON por linha), com os eventos que não
+// puderam ser entregues ao Kafka. Para reenviar, o arquivo ativo é renomeado para
+// *.replay e um novo arquivo passa a receber os próximos eventos.
+public class SpillFile<T> {
+
+    private static final String REPLAY_SUFFIX = ".replay";
+
+    private final Path directory;
+    private final String name;
+    private final Path activeFile;
+    private final Class<T> type;
+    private final ObjectMapper objectMapper;
+
+    private BufferedWriter writer;
+    private long pendingEvents;
+    // Há eventos gravados ainda não reenviados (inclusive de uma execução anterior)
+    private boolean backlog;
+
+    // name identifica o publicador: o mesmo diretório pode guardar arquivos de vários
+    public SpillFile(Path directory, String name, Class<T> type, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.name = name;
+        this.activeFile = directory.resolve(name + ".jsonl");
+        this.type = type;
+        this.objectMapper = objectMapper;
+        try {
+            Files.createDirectories(directory);
+            this.backlog = hasPending();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized void append(List<T> events) throws IOException {
+        if (writer == null) {
+            writer = Files.newBufferedWriter(activeFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        for (T event : events) {
+            writer.write(objectMapper.writeValueAsString(event));
+            writer.newLine();
+        }
+        writer.flush();
+        pendingEvents += events.size();
+        backlog = true;
+    }
+
+    // Leitura barata (sem I/O), feita a cada lote pelo publicador
+    public synchronized boolean hasBacklog() {
+        return backlog;
+    }
+
+    // Chamado depois de reenviar e apagar todos os arquivos devolvidos por rotate(): o backlog
+    // só continua se chegaram eventos ao arquivo ativo durante o reenvio
+    public synchronized void replayed() {
+        backlog = pendingEvents > 0;
+    }
+
+    // Há algo para reenviar: eventos no arquivo ativo ou arquivos *.replay de uma execução anterior
+    public synchronized boolean hasPending() throws IOException {
+        return pendingEvents > 0 || (Files.exists(activeFile) && Files.size(activeFile) > 0)
+                || !replayFiles().isEmpty();
+    }
+
+    // Fecha o arquivo ativo e devolve todos os arquivos prontos para reenvio
+    public synchronized List<Path> rotate() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+        if (Files.exists(activeFile) && Files.size(activeFile) > 0) {
+            Path target = directory.resolve(name + ".jsonl." + System.currentTimeMillis() + REPLAY_SUFFIX);
+            Files.move(activeFile, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        pendingEvents = 0;
+        return replayFiles();
+    }
+
+    // Lê um arquivo de reenvio em blocos, sem carregá-lo inteiro na memória
+    public void read(Path file, int chunkSize, ChunkConsumer<T> consumer) throws Exception {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<T> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(objectMapper.readValue(line, type));
+                if (chunk.size() >= chunkSize) {
+                    consumer.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+            }
+        }
+    }
+
+    public void delete(Path file) throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private List<Path> replayFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, name + ".jsonl.*" + REPLAY_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    @FunctionalInterface
+    public interface ChunkConsumer<T> {
+        void accept(List<T> chunk) throws Exception;
+    }
+}
@@ -0,0 +1,324 @@
+package com.frauddetector.orchestrator.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Publica eventos fora da thread da requisição: os eventos entram em uma fila limitada
+// e uma thread dedicada os envia em lotes ao Kafka. Falhas de entrega (ou fila cheia)
+// vão para um arquivo local que é reenviado quando o Kafka volta. A thread da requisição
+// nunca toca o arquivo: com a fila cheia o evento vai para uma segunda fila limitada, que
+// a thread do publicador grava no arquivo, e só é descartado se as duas estiverem cheias.
+// Falhas de entrega chegam na thread de I/O do produtor, que também não toca o arquivo:
+// o evento volta para a thread do publicador por uma fila e é gravado por ela, em lote.
+// Ordem por chave: enquanto houver eventos no arquivo esperando reenvio, os novos também
+// vão para o arquivo, atrás deles, em vez de passarem direto ao Kafka. Assim um evento
+// de um usuário nunca chega ao tópico antes de um anterior que foi para o arquivo.
+// A observação da requisição que gerou o evento segue com ele na fila, para que o
+// envio (e o trace nos headers do registro) continue o mesmo trace.
+public class SpillingKafkaPublisher<T> {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final String name;
+    private final KafkaTemplate<String, T> kafkaTemplate;
+    private final PublisherSettings settings;
+    private final Function<T, String> keyExtractor;
+    private final SpillFile<T> spillFile;
+    private final BlockingQueue<Pending<T>> queue;
+    private final BlockingQueue<Pending<T>> overflow;
+    // Limitada na prática pelos envios em andamento (buffer.memory do produtor)
+    private final ConcurrentLinkedQueue<T> failedDeliveries = new ConcurrentLinkedQueue<>();
+    private final ObservationRegistry observationRegistry;
+
+    private final Counter publishedEvents;
+    private final Counter failedEvents;
+    private final Counter spilledEvents;
+    private final Counter replayedEvents;
+    private final Counter droppedEvents;
+    private final Timer sendSuccess;
+    private final Timer sendFailure;
+
+    private volatile boolean running;
+    // Momento da última falha de entrega (0 = nenhuma). Até passar replayInterval dela,
+    // os lotes vão direto para o arquivo em vez de esperar timeouts do produtor
+    private volatile long lastFailureNanos;
+    private long nextReplayNanos;
+    private Thread publisherThread;
+
+    // name nomeia a thread, o arquivo de contingência e as métricas (orchestrator.<name>.*)
+    public SpillingKafkaPublisher(
+            String name,
+            Class<T> type,
+            Function<T, String> keyExtractor,
+            KafkaTemplate<String, T> kafkaTemplate,
+            PublisherSettings settings,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            ObservationRegistry observationRegistry
+    ) {
+        this.name = name;
+        this.kafkaTemplate = kafkaTemplate;
+        this.settings = settings;
+        this.keyExtractor = keyExtractor;
+        this.spillFile = new SpillFile<>(Path.of(settings.spillDirectory()), name + "-spill", type, objectMapper);
+        this.queue = new ArrayBlockingQueue<>(settings.queueCapacity());
+        this.overflow = new ArrayBlockingQueue<>(settings.overflowCapacity());
+        this.observationRegistry = observationRegistry;
+
+        this.publishedEvents = eventCounter(meterRegistry, "published");
+        this.failedEvents = eventCounter(meterRegistry, "failed");
+        this.spilledEvents = eventCounter(meterRegistry, "spilled");
+        this.replayedEvents = eventCounter(meterRegistry, "replayed");
+        this.droppedEvents = eventCounter(meterRegistry, "dropped");
+        // Do send até a confirmação (ou falha) do broker
+        this.sendSuccess = sendTimer(meterRegistry, "success");
+        this.sendFailure = sendTimer(meterRegistry, "failure");
+        Gauge.builder("orchestrator." + name + ".queue.size", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        Gauge.builder("orchestrator." + name + ".overflow.size", overflow, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    public void publish(T event) {
+        // Nunca bloqueia a requisição nem faz I/O nela: só offers em filas limitadas
+        Pending<T> pending = new Pending<>(event, observationRegistry.getCurrentObservation());
+        // Com eventos no overflow, os seguintes vão atrás deles para não passarem na frente
+        if ((!overflow.isEmpty() || !queue.offer(pending)) && !overflow.offer(pending)) {
+            droppedEvents.increment();
+        }
+    }
+
+    public void publishAll(List<T> events) {
+        for (T event : events) {
+            publish(event);
+        }
+    }
+
+    public void start() {
+        running = true;
+        nextReplayNanos = System.nanoTime();
+        publisherThread = new Thread(this::runPublisher, name + "-publisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            publisherThread.join(settings.replayAckTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Drenar com a thread ainda ativa competiria com ela pelas filas e pelo arquivo
+        if (publisherThread.isAlive()) {
+            logger.warn(">>> Publicador de {} não terminou em {}; eventos ainda nas filas podem se perder",
+                    name, settings.replayAckTimeout());
+            return;
+        }
+        // Aguarda os envios em andamento para que falhas ainda caiam no arquivo
+        kafkaTemplate.flush();
+        spill(drainFailed());
+        spill(drainAll(queue));
+        spill(drainAll(overflow));
+        try {
+            spillFile.close();
+        } catch (IOException e) {
+            logger.error(">>> Erro ao fechar o arquivo de contingência de {}", name, e);
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runPublisher() {
+        List<Pending<T>> batch = new ArrayList<>(settings.batchSize());
+        long pollTimeoutMillis = settings.pollTimeout().toMillis();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                spill(drainFailed());
+                // O overflow só vai para o arquivo com a fila vazia: o que está na fila é mais antigo
+                if (queue.isEmpty()) {
+                    spill(drainAll(overflow));
+                }
+                Pending<T> first = queue.poll(pollTimeoutMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, settings.batchSize() - 1);
+                    publishBatch(batch);
+                    batch.clear();
+                }
+                if (running) {
+                    replayIfDue();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error(">>> Erro no publicador de {}", name, e);
+                spill(events(batch));
+                batch.clear();
+            }
+        }
+    }
+
+    private void publishBatch(List<Pending<T>> batch) {
+        // Falhas que chegaram durante o poll vão para o arquivo antes do lote, que é mais novo
+        spill(drainFailed());
+        if (!kafkaAvailable() || spillFile.hasBacklog()) {
+            spill(events(batch));
+            return;
+        }
+        sendAll(batch);
+    }
+
+    private List<CompletableFuture<Void>> sendAll(List<Pending<T>> batch) {
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) {
+            if (pending.parent() == null) {
+                deliveries.add(send(pending.event()));
+            } else {
+                pending.parent().scoped(() -> deliveries.add(send(pending.event())));
+            }
+        }
+        return deliveries;
+    }
+
+    private CompletableFuture<Void> send(T event) {
+        long start = System.nanoTime();
+        try {
+            return kafkaTemplate.send(settings.topic(), keyExtractor.apply(event), event)
+                    .handle((result, error) -> {
+                        onDelivery(event, error, start);
+                        return null;
+                    });
+        } catch (RuntimeException e) {
+            // send pode falhar antes de devolver o future (ex.: timeout de metadados)
+            onDelivery(event, e, start);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private void onDelivery(T event, Throwable error, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        if (error == null) {
+            sendSuccess.record(elapsed, TimeUnit.NANOSECONDS);
+            publishedEvents.increment();
+            return;
+        }
+        sendFailure.record(elapsed, TimeUnit.NANOSECONDS);
+        failedEvents.increment();
+        if (kafkaAvailable()) {
+            logger.warn(">>> Falha ao entregar evento de {} ao Kafka: {}", name, error.getMessage());
+        }
+        lastFailureNanos = System.nanoTime();
+        // Roda na thread de I/O do produtor: o arquivo fica com a thread do publicador
+        failedDeliveries.add(event);
+    }
+
+    private boolean kafkaAvailable() {
+        long lastFailure = lastFailureNanos;
+        return lastFailure == 0 || System.nanoTime() - lastFailure > settings.replayInterval().toNanos();
+    }
+
+    // Com backlog e Kafka disponível o reenvio é imediato, já que os eventos novos esperam
+    // atrás dele; replayInterval só espaça as tentativas depois de um reenvio interrompido
+    private void replayIfDue() {
+        long now = System.nanoTime();
+        if (now < nextReplayNanos || !kafkaAvailable() || !spillFile.hasBacklog()) {
+            return;
+        }
+
+        try {
+            for (Path file : spillFile.rotate()) {
+                spillFile.read(file, settings.batchSize(), chunk -> {
+                    // Espera a confirmação de cada bloco antes de ler o próximo
+                    // Eventos reenviados do arquivo não têm mais o contexto da requisição
+                    List<Pending<T>> replay = chunk.stream().map(event -> new Pending<T>(event, null)).toList();
+                    CompletableFuture.allOf(sendAll(replay).toArray(CompletableFuture[]::new))
+                            .get(settings.replayAckTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                    // Os que falharam de novo voltam para o arquivo ativo antes de o lido ser apagado
+                    spill(drainFailed());
+                    replayedEvents.increment(chunk.size());
+                });
+                spillFile.delete(file);
+                logger.info(">>> Arquivo de contingência de {} reenviado: {}", name, file);
+            }
+            spillFile.replayed();
+        } catch (Exception e) {
+            nextReplayNanos = now + settings.replayInterval().toNanos();
+            logger.warn(">>> Reenvio de {} interrompido, nova tentativa em {}: {}",
+                    name, settings.replayInterval(), e.getMessage());
+        }
+    }
+
+    private void spill(List<T> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            spillFile.append(events);
+            spilledEvents.increment(events.size());
+        } catch (IOException e) {
+            logger.error(">>> Não foi possível gravar {} eventos de {} no arquivo local", events.size(), name, e);
+        }
+    }
+
+    private List<T> drainFailed() {
+        if (failedDeliveries.isEmpty()) {
+            return List.of();
+        }
+        List<T> failed = new ArrayList<>();
+        T event;
+        while ((event = failedDeliveries.poll()) != null) {
+            failed.add(event);
+        }
+        return failed;
+    }
+
+    private List<T> drainAll(BlockingQueue<Pending<T>> source) {
+        List<Pending<T>> remaining = new ArrayList<>(source.size());
+        source.drainTo(remaining);
+        return events(remaining);
+    }
+
+    private static <T> List<T> events(List<Pending<T>> batch) {
+        return batch.stream().map(Pending::event).toList();
+    }
+
+    private Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("orchestrator." + name + ".events")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Timer sendTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("orchestrator." + name + ".send")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Evento na fila com a observação ativa quando ele foi publicado (ou null)
+    private record Pending<T>(T event, Observation parent) {}
+}
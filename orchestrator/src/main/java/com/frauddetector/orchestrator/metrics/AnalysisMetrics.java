@@ -0,0 +1,113 @@
+package com.frauddetector.orchestrator.metrics;
+
+import com.frauddetector.orchestrator.dto.AnalysisOutcome;
+import com.frauddetector.orchestrator.scoring.LocalScoringEngine;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Timers das etapas de uma análise, para localizar de onde vem a latência:
+//   orchestrator.analysis.stage{stage, outcome}  profile | scoring | publish; success | empty | error | cancelled
+//   orchestrator.analysis{status, action}        análise completa, por status e ação recomendada
+// As combinações conhecidas de tags são registradas na construção; a requisição só consulta
+// um mapa. Valores fora delas (ex.: ação nova do inference-service) caem no MeterProvider
+@Component
+public class AnalysisMetrics {
+
+    public static final String STAGE_PROFILE = "profile";
+    public static final String STAGE_SCORING = "scoring";
+    public static final String STAGE_PUBLISH = "publish";
+
+    private static final List<String> STAGES = List.of(STAGE_PROFILE, STAGE_SCORING, STAGE_PUBLISH);
+    private static final List<String> STAGE_OUTCOMES = List.of("success", "empty", "error", "cancelled");
+    private static final List<String> ACTIONS = List.of(
+            LocalScoringEngine.APPROVE, LocalScoringEngine.REVIEW, LocalScoringEngine.DECLINE
+    );
+
+    private final Meter.MeterProvider<Timer> stageTimers;
+    private final Meter.MeterProvider<Timer> analysisTimers;
+    // stage -> outcome -> timer e status -> action -> timer; só lidos depois da construção
+    private final Map<String, Map<String, Timer>> knownStageTimers = new HashMap<>();
+    private final Map<String, Map<String, Timer>> knownAnalysisTimers = new HashMap<>();
+
+    public AnalysisMetrics(MeterRegistry meterRegistry) {
+        this.stageTimers = Timer.builder("orchestrator.analysis.stage").withRegistry(meterRegistry);
+        this.analysisTimers = Timer.builder("orchestrator.analysis").withRegistry(meterRegistry);
+        for (String stage : STAGES) {
+            Map<String, Timer> byOutcome = knownStageTimers.computeIfAbsent(stage, key -> new HashMap<>());
+            for (String outcome : STAGE_OUTCOMES) {
+                byOutcome.put(outcome, stageTimers.withTags("stage", stage, "outcome", outcome));
+            }
+        }
+        for (String status : List.of(AnalysisOutcome.COMPLETE, AnalysisOutcome.DEGRADED)) {
+            Map<String, Timer> byAction = knownAnalysisTimers.computeIfAbsent(status, key -> new HashMap<>());
+            for (String action : ACTIONS) {
+                byAction.put(action, analysisTimers.withTags("status", status, "action", action));
+            }
+        }
+        knownAnalysisTimers.put("empty", Map.of("none", analysisTimers.withTags("status", "empty", "action", "none")));
+        knownAnalysisTimers.put("error", Map.of("none", analysisTimers.withTags("status", "error", "action", "none")));
+    }
+
+    // Mede da assinatura até o sinal final do Mono
+    public <T> Mono<T> timeStage(String stage, Mono<T> source) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return source
+                    .doOnSuccess(value -> recordStage(stage, value == null ? "empty" : "success", start))
+                    .doOnError(error -> recordStage(stage, "error", start))
+                    .doOnCancel(() -> recordStage(stage, "cancelled", start));
+        });
+    }
+
+    public void timeStage(String stage, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+            recordStage(stage, "success", start);
+        } catch (RuntimeException e) {
+            recordStage(stage, "error", start);
+            throw e;
+        }
+    }
+
+    public Mono<AnalysisOutcome> timeAnalysis(Mono<AnalysisOutcome> source) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return source
+                    .doOnSuccess(outcome -> recordAnalysis(
+                            outcome == null ? "empty" : outcome.status(),
+                            outcome == null ? "none" : outcome.riskAnalysis().recommendedAction(),
+                            start))
+                    .doOnError(error -> recordAnalysis("error", "none", start));
+        });
+    }
+
+    private void recordStage(String stage, String outcome, long startNanos) {
+        Timer timer = lookup(knownStageTimers, stage, outcome);
+        if (timer == null) {
+            timer = stageTimers.withTags("stage", stage, "outcome", outcome);
+        }
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordAnalysis(String status, String action, long startNanos) {
+        Timer timer = lookup(knownAnalysisTimers, status, action);
+        if (timer == null) {
+            timer = analysisTimers.withTags("status", status, "action", String.valueOf(action));
+        }
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer lookup(Map<String, Map<String, Timer>> timers, String first, String second) {
+        Map<String, Timer> bySecond = timers.get(first);
+        return bySecond == null || second == null ? null : bySecond.get(second);
+    }
+}
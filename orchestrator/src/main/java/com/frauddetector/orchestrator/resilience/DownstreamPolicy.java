@@ -0,0 +1,152 @@
+package com.frauddetector.orchestrator.resilience;
+
+import com.frauddetector.orchestrator.config.ResilienceProperties;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Aplica timeout, hedge e circuit breaker às chamadas de um serviço
+public class DownstreamPolicy {
+
+    // Intervalo de recálculo do atraso do hedge a partir do histograma de latência
+    private static final long HEDGE_DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Status gRPC que indicam serviço indisponível ou sobrecarregado
+    private static final Set<Status.Code> UNAVAILABLE_CODES = EnumSet.of(
+            Status.Code.UNAVAILABLE, Status.Code.DEADLINE_EXCEEDED, Status.Code.RESOURCE_EXHAUSTED
+    );
+
+    private final ResilienceProperties.Policy policy;
+    private final CircuitBreaker circuitBreaker;
+    private final Timer latency;
+    private final Counter calls;
+    private final Counter hedges;
+
+    private volatile Duration hedgeDelay;
+    private volatile long hedgeDelayComputedAt;
+
+    public DownstreamPolicy(
+            String name,
+            ResilienceProperties.Policy policy,
+            CircuitBreaker circuitBreaker,
+            MeterRegistry meterRegistry
+    ) {
+        this.policy = policy;
+        this.circuitBreaker = circuitBreaker;
+        this.latency = Timer.builder("orchestrator.downstream.latency")
+                .tag("downstream", name)
+                .publishPercentiles(policy.hedgePercentile())
+                .register(meterRegistry);
+        this.calls = Counter.builder("orchestrator.downstream.calls")
+                .tag("downstream", name)
+                .register(meterRegistry);
+        this.hedges = Counter.builder("orchestrator.downstream.hedges")
+                .tag("downstream", name)
+                .register(meterRegistry);
+        this.hedgeDelay = policy.timeout();
+        this.hedgeDelayComputedAt = System.nanoTime();
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        Mono<T> attempt = policy.hedgeEnabled() ? hedged(call) : timed(call);
+        return attempt
+                .timeout(policy.timeout())
+                .doOnSubscribe(subscription -> calls.increment())
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    // Só indisponibilidade do serviço conta como falha dele: timeout, breaker aberto, erro de
+    // conexão/I/O, 5xx e os status gRPC equivalentes. O resto (4xx, INVALID_ARGUMENT, erros
+    // de programação do orquestrador) não degrada a análise nem abre o breaker
+    public static boolean isDownstreamFailure(Throwable error) {
+        if (error instanceof TimeoutException
+                || error instanceof CallNotPermittedException
+                || error instanceof WebClientRequestException
+                || error instanceof IOException) {
+            return true;
+        }
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError();
+        }
+        if (error instanceof StatusRuntimeException status) {
+            return UNAVAILABLE_CODES.contains(status.getStatus().getCode());
+        }
+        return false;
+    }
+
+    // O hedge só sai se a primeira requisição ainda estiver pendente quando o atraso vence: o
+    // primeiro sinal (valor, vazio ou erro) cancela o timer e a outra requisição. Com as duas
+    // em andamento, a primeira falha de disponibilidade espera pela outra; a segunda, ou
+    // qualquer outro erro (ex.: 4xx), volta na hora
+    private <T> Mono<T> hedged(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            AtomicBoolean hedgeStarted = new AtomicBoolean();
+            AtomicInteger failures = new AtomicInteger();
+            Mono<T> primary = timed(call)
+                    .onErrorResume(
+                            error -> hedgeStarted.get() && isDownstreamFailure(error)
+                                    && failures.incrementAndGet() == 1,
+                            error -> Mono.never()
+                    );
+            Mono<T> hedge = Mono.delay(currentHedgeDelay())
+                    .flatMap(tick -> {
+                        hedgeStarted.set(true);
+                        hedges.increment();
+                        return timed(call);
+                    })
+                    .onErrorResume(
+                            error -> isDownstreamFailure(error) && failures.incrementAndGet() == 1,
+                            error -> Mono.never()
+                    );
+            return Mono.firstWithSignal(primary, hedge);
+        });
+    }
+
+    private <T> Mono<T> timed(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.get()
+                    .doOnSuccess(value -> latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private Duration currentHedgeDelay() {
+        long now = System.nanoTime();
+        if (now - hedgeDelayComputedAt > HEDGE_DELAY_REFRESH_NANOS) {
+            hedgeDelayComputedAt = now;
+            hedgeDelay = computeHedgeDelay();
+        }
+        return hedgeDelay;
+    }
+
+    private Duration computeHedgeDelay() {
+        ValueAtPercentile[] percentiles = latency.takeSnapshot().percentileValues();
+        // Sem amostras ainda: não dispara hedge antes do timeout
+        if (latency.count() == 0 || percentiles.length == 0) {
+            return policy.timeout();
+        }
+        long nanos = (long) percentiles[0].value(TimeUnit.NANOSECONDS);
+        long min = policy.hedgeMinDelay().toNanos();
+        long max = policy.timeout().toNanos();
+        return Duration.ofNanos(Math.min(Math.max(nanos, min), max));
+    }
+}
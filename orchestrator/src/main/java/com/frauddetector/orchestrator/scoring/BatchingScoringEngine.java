@@ -0,0 +1,164 @@
+package com.frauddetector.orchestrator.scoring;
+
+import com.frauddetector.events.AnalysisResponseDTO;
+import com.frauddetector.orchestrator.config.BatchScoringProperties;
+import com.frauddetector.orchestrator.dto.AnalysisRequestDTO;
+import com.frauddetector.orchestrator.resilience.DownstreamPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Agrupa inferências concorrentes em uma única chamada POST /predict/batch. O lote sai
+// quando atinge max-batch-size ou quando o primeiro pedido esperou max-wait, e cada
+// resposta (na mesma ordem dos pedidos) completa o Mono que a aguarda. A política de
+// resiliência da inferência vale para o lote inteiro.
+@Component
+@ConditionalOnProperty(name = "orchestrator.scoring.engine", havingValue = "batch")
+public class BatchingScoringEngine implements ScoringEngine {
+
+    private final WebClient inferenceWebClient;
+    private final DownstreamPolicy inferencePolicy;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Scheduler scheduler = Schedulers.parallel();
+
+    private final DistributionSummary batchSizes;
+    private final Timer batchWait;
+    private final Counter sizeFlushes;
+    private final Counter windowFlushes;
+
+    // Lote em formação e o timer da janela do seu primeiro pedido
+    private final Object lock = new Object();
+    private List<Pending> batch;
+    private Disposable windowTimer;
+
+    public BatchingScoringEngine(
+            @Qualifier("inferenceWebClient") WebClient inferenceWebClient,
+            @Qualifier("inferencePolicy") DownstreamPolicy inferencePolicy,
+            BatchScoringProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.inferenceWebClient = inferenceWebClient;
+        this.inferencePolicy = inferencePolicy;
+        this.maxBatchSize = properties.maxBatchSize();
+        this.maxWaitNanos = properties.maxWait().toNanos();
+        this.batch = new ArrayList<>(maxBatchSize);
+
+        this.batchSizes = DistributionSummary.builder("orchestrator.scoring.batch.size")
+                .description("Inferências por chamada ao /predict/batch")
+                .register(meterRegistry);
+        this.batchWait = Timer.builder("orchestrator.scoring.batch.wait")
+                .description("Espera de um pedido até o envio do seu lote")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sizeFlushes = flushCounter(meterRegistry, "size");
+        this.windowFlushes = flushCounter(meterRegistry, "window");
+    }
+
+    @Override
+    public Mono<AnalysisResponseDTO> score(AnalysisRequestDTO request) {
+        // Um pedido inválido faria o lote inteiro ser recusado (422), então é barrado aqui
+        if (request.value() == null) {
+            return Mono.error(new IllegalArgumentException("Valor da transação ausente"));
+        }
+        if (request.userId() == null || request.lastTransactionCountry() == null) {
+            return Mono.error(new IllegalArgumentException("Usuário ou país da última transação ausente"));
+        }
+        return Mono.create(sink -> enqueue(new Pending(request, sink, System.nanoTime())));
+    }
+
+    private void enqueue(Pending pending) {
+        List<Pending> ready = null;
+        synchronized (lock) {
+            batch.add(pending);
+            if (batch.size() >= maxBatchSize) {
+                ready = takeBatch();
+            } else if (batch.size() == 1) {
+                windowTimer = scheduler.schedule(this::flushWindow, maxWaitNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (ready != null) {
+            sizeFlushes.increment();
+            send(ready);
+        }
+    }
+
+    private void flushWindow() {
+        List<Pending> ready;
+        synchronized (lock) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            ready = takeBatch();
+        }
+        windowFlushes.increment();
+        send(ready);
+    }
+
+    // Chamado com o lock
+    private List<Pending> takeBatch() {
+        List<Pending> ready = batch;
+        batch = new ArrayList<>(maxBatchSize);
+        if (windowTimer != null) {
+            windowTimer.dispose();
+            windowTimer = null;
+        }
+        return ready;
+    }
+
+    private void send(List<Pending> ready) {
+        long now = System.nanoTime();
+        List<AnalysisRequestDTO> requests = new ArrayList<>(ready.size());
+        for (Pending pending : ready) {
+            batchWait.record(now - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+            requests.add(pending.request());
+        }
+        batchSizes.record(ready.size());
+
+        inferencePolicy.execute(() -> this.inferenceWebClient.post()
+                        .uri("/predict/batch")
+                        .bodyValue(requests)
+                        .retrieve()
+                        .bodyToFlux(AnalysisResponseDTO.class)
+                        .collectList())
+                .subscribe(
+                        responses -> complete(ready, responses),
+                        error -> ready.forEach(pending -> pending.sink().error(error))
+                );
+    }
+
+    private static void complete(List<Pending> ready, List<AnalysisResponseDTO> responses) {
+        if (responses.size() != ready.size()) {
+            IllegalStateException error = new IllegalStateException(
+                    "/predict/batch devolveu " + responses.size() + " respostas para " + ready.size() + " pedidos"
+            );
+            ready.forEach(pending -> pending.sink().error(error));
+            return;
+        }
+        for (int i = 0; i < ready.size(); i++) {
+            ready.get(i).sink().success(responses.get(i));
+        }
+    }
+
+    private static Counter flushCounter(MeterRegistry meterRegistry, String trigger) {
+        return Counter.builder("orchestrator.scoring.batch.flushes")
+                .tag("trigger", trigger)
+                .register(meterRegistry);
+    }
+
+    private record Pending(AnalysisRequestDTO request, MonoSink<AnalysisResponseDTO> sink, long enqueuedAt) {}
+}
@@ -0,0 +1,142 @@
+package com.frauddetector.orchestrator.scoring;
+
+import com.frauddetector.events.AnalysisResponseDTO;
+import com.frauddetector.inference.v1.InferenceGrpc;
+import com.frauddetector.inference.v1.PredictRequest;
+import com.frauddetector.inference.v1.PredictResponse;
+import com.frauddetector.orchestrator.config.GrpcScoringProperties;
+import com.frauddetector.orchestrator.dto.AnalysisRequestDTO;
+import com.frauddetector.orchestrator.resilience.DownstreamPolicy;
+import io.grpc.Context;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+// Delega a inferência ao inference-service por gRPC/protobuf, em chamadas unárias ou em
+// um stream compartilhado (orchestrator.scoring.grpc.mode). O endpoint JSON continua
+// disponível como fallback quando o gRPC não responde.
+@Component
+@ConditionalOnProperty(name = "orchestrator.scoring.engine", havingValue = "grpc")
+public class GrpcScoringEngine implements ScoringEngine {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final GrpcScoringProperties properties;
+    private final InferenceGrpc.InferenceStub stub;
+    private final InferenceStream stream;
+    private final RemoteScoringEngine jsonEngine;
+    private final DownstreamPolicy inferencePolicy;
+    private final Counter jsonFallbacks;
+
+    public GrpcScoringEngine(
+            ManagedChannel inferenceChannel,
+            GrpcScoringProperties properties,
+            @Qualifier("inferenceWebClient") WebClient inferenceWebClient,
+            @Qualifier("inferencePolicy") DownstreamPolicy inferencePolicy,
+            MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.stub = InferenceGrpc.newStub(inferenceChannel);
+        this.stream = new InferenceStream(
+                stub,
+                properties.streamMaxInFlight(),
+                Counter.builder("orchestrator.scoring.grpc.stream.rejected")
+                        .description("Pedidos recusados pelo controle de fluxo do PredictStream")
+                        .register(meterRegistry)
+        );
+        this.jsonEngine = new RemoteScoringEngine(inferenceWebClient, inferencePolicy);
+        this.inferencePolicy = inferencePolicy;
+        this.jsonFallbacks = Counter.builder("orchestrator.scoring.grpc.fallbacks")
+                .description("Inferências enviadas ao endpoint JSON por falha do transporte gRPC")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<AnalysisResponseDTO> score(AnalysisRequestDTO request) {
+        // O fallback fica dentro da política: timeout, hedge e breaker valem para a tentativa inteira
+        return inferencePolicy.execute(() -> call(request)
+                .onErrorResume(this::shouldFallBack, error -> {
+                    jsonFallbacks.increment();
+                    logger.debug(">>> gRPC indisponível ({}), usando o endpoint JSON", error.getMessage());
+                    return jsonEngine.predict(request);
+                }));
+    }
+
+    private Mono<AnalysisResponseDTO> call(AnalysisRequestDTO request) {
+        // Mesmo comportamento do endpoint JSON, que recusa o pedido sem valor (422)
+        if (request.value() == null) {
+            return Mono.error(Status.INVALID_ARGUMENT.withDescription("Valor da transação ausente").asRuntimeException());
+        }
+        PredictRequest.Builder message = toMessage(request);
+        Mono<PredictResponse> response = properties.mode() == GrpcScoringProperties.Mode.STREAM
+                ? stream.predict(message)
+                : unary(message.build());
+        return response.map(reply -> new AnalysisResponseDTO(reply.getRiskScore(), reply.getRecommendedAction()));
+    }
+
+    private Mono<PredictResponse> unary(PredictRequest message) {
+        return Mono.create(sink -> {
+            // Cancelar o contexto cancela a chamada no servidor (ex.: hedge que perdeu)
+            Context.CancellableContext context = Context.current().withCancellation();
+            sink.onCancel(() -> context.cancel(null));
+            context.run(() -> stub.withDeadlineAfter(properties.deadline().toMillis(), TimeUnit.MILLISECONDS)
+                    .predict(message, new StreamObserver<>() {
+                        @Override
+                        public void onNext(PredictResponse value) {
+                            sink.success(value);
+                        }
+
+                        @Override
+                        public void onError(Throwable error) {
+                            sink.error(error);
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            sink.success();
+                        }
+                    }));
+        });
+    }
+
+    private boolean shouldFallBack(Throwable error) {
+        if (!properties.fallbackToJson() || !(error instanceof StatusRuntimeException status)) {
+            return false;
+        }
+        Status.Code code = status.getStatus().getCode();
+        return code == Status.Code.UNAVAILABLE || code == Status.Code.UNIMPLEMENTED;
+    }
+
+    // Strings ausentes viram string vazia, o padrão do proto3
+    private static PredictRequest.Builder toMessage(AnalysisRequestDTO request) {
+        PredictRequest.Builder message = PredictRequest.newBuilder()
+                .setValue(request.value())
+                .setTransactionCount(request.transactionCount())
+                .setAverageAmount(request.averageAmount())
+                .setTransactionsLastMinute(request.transactionsLastMinute())
+                .setAmountLastMinute(request.amountLastMinute())
+                .setTransactionsLastHour(request.transactionsLastHour())
+                .setAmountLastHour(request.amountLastHour())
+                .setTransactionsLastDay(request.transactionsLastDay())
+                .setAmountLastDay(request.amountLastDay());
+        if (request.userId() != null) {
+            message.setUserId(request.userId());
+        }
+        if (request.lastTransactionCountry() != null) {
+            message.setLastTransactionCountry(request.lastTransactionCountry());
+        }
+        return message;
+    }
+}
@@ -0,0 +1,115 @@
+package com.frauddetector.orchestrator.scoring;
+
+import com.frauddetector.inference.v1.InferenceGrpc;
+import com.frauddetector.inference.v1.PredictRequest;
+import com.frauddetector.inference.v1.PredictResponse;
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.micrometer.core.instrument.Counter;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Multiplexa as inferências em um único PredictStream bidirecional. Cada pedido leva um
+// correlation_id e a resposta correspondente completa o Mono que o aguarda. Se o stream
+// cai, os pedidos pendentes nele falham (e a política de resiliência decide o que fazer);
+// o próximo pedido abre um stream novo.
+// Controle de fluxo: com maxInFlight pedidos sem resposta, ou com o buffer de saída do
+// stream cheio (isReady falso), o pedido falha na hora com RESOURCE_EXHAUSTED em vez de
+// acumular mensagens na memória do gRPC.
+final class InferenceStream {
+
+    private final InferenceGrpc.InferenceStub stub;
+    private final int maxInFlight;
+    private final Counter rejected;
+    private final AtomicLong correlationIds = new AtomicLong();
+    // Protege a sessão atual e o onNext, que não pode ser chamado de threads concorrentes
+    private final Object lock = new Object();
+    private Session session;
+
+    InferenceStream(InferenceGrpc.InferenceStub stub, int maxInFlight, Counter rejected) {
+        this.stub = stub;
+        this.maxInFlight = maxInFlight;
+        this.rejected = rejected;
+    }
+
+    Mono<PredictResponse> predict(PredictRequest.Builder request) {
+        return Mono.create(sink -> {
+            long correlationId = correlationIds.incrementAndGet();
+            PredictRequest message = request.setCorrelationId(correlationId).build();
+            synchronized (lock) {
+                Session current = currentSession();
+                // Um stream recém-aberto ainda não está pronto; o primeiro pedido sempre passa
+                if (current.pending.size() >= maxInFlight
+                        || (!current.requests.isReady() && !current.pending.isEmpty())) {
+                    rejected.increment();
+                    sink.error(Status.RESOURCE_EXHAUSTED
+                            .withDescription("PredictStream sem capacidade para novos pedidos")
+                            .asRuntimeException());
+                    return;
+                }
+                current.pending.put(correlationId, sink);
+                // Cancelado (timeout ou hedge vencedor): a resposta, se vier, é descartada
+                sink.onDispose(() -> current.pending.remove(correlationId));
+                try {
+                    current.requests.onNext(message);
+                } catch (RuntimeException e) {
+                    current.pending.remove(correlationId);
+                    sink.error(e);
+                }
+            }
+        });
+    }
+
+    private Session currentSession() {
+        if (session == null) {
+            session = new Session();
+            stub.predictStream(session);
+        }
+        return session;
+    }
+
+    private final class Session implements ClientResponseObserver<PredictRequest, PredictResponse> {
+
+        private final Map<Long, MonoSink<PredictResponse>> pending = new ConcurrentHashMap<>();
+        private ClientCallStreamObserver<PredictRequest> requests;
+
+        // Chamado dentro de predictStream, antes de a chamada começar
+        @Override
+        public void beforeStart(ClientCallStreamObserver<PredictRequest> requests) {
+            this.requests = requests;
+        }
+
+        @Override
+        public void onNext(PredictResponse response) {
+            MonoSink<PredictResponse> sink = pending.remove(response.getCorrelationId());
+            if (sink != null) {
+                sink.success(response);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            close(error);
+        }
+
+        @Override
+        public void onCompleted() {
+            close(Status.UNAVAILABLE.withDescription("PredictStream encerrado pelo servidor").asRuntimeException());
+        }
+
+        private void close(Throwable error) {
+            synchronized (lock) {
+                if (session == this) {
+                    session = null;
+                }
+            }
+            pending.values().forEach(sink -> sink.error(error));
+            pending.clear();
+        }
+    }
+}
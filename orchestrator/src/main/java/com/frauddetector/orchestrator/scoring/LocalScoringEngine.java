@@ -0,0 +1,104 @@
+package com.frauddetector.orchestrator.scoring;
+
+import com.frauddetector.events.AnalysisResponseDTO;
+import com.frauddetector.orchestrator.dto.AnalysisRequestDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Versão em Java das regras do inference-service (app/main.py), sem salto de rede.
+// Qualquer mudança em predict_proba_with_simulator ou get_cost_sensitive_action
+// precisa ser replicada aqui.
+@Component
+@ConditionalOnProperty(name = "orchestrator.scoring.engine", havingValue = "local")
+public class LocalScoringEngine implements ScoringEngine {
+
+    public static final String APPROVE = "APPROVE";
+    public static final String REVIEW = "REVIEW";
+    public static final String DECLINE = "DECLINE";
+
+    // Custo de um falso positivo (bloquear uma transação legítima)
+    private static final double COST_FP = 2.0;
+    // Limite fixo para recusa direta de transações de altíssimo risco
+    private static final double DECLINE_THRESHOLD = 0.90;
+    // Ruído aplicado ao score, igual ao np.random.uniform(-0.05, 0.05) do simulador
+    private static final double NOISE = 0.05;
+
+    private static final String HOME_COUNTRY = "BRA";
+    // Transações por minuto acima das quais o usuário é tratado como rajada
+    private static final long VELOCITY_MINUTE_LIMIT = 5;
+
+    @Override
+    public Mono<AnalysisResponseDTO> score(AnalysisRequestDTO request) {
+        if (request.value() == null) {
+            return Mono.error(new IllegalArgumentException("Valor da transação ausente"));
+        }
+        double value = request.value();
+        double noise = ThreadLocalRandom.current().nextDouble(-NOISE, NOISE);
+
+        double probability = riskScore(
+                value,
+                request.transactionCount(),
+                request.averageAmount(),
+                request.lastTransactionCountry(),
+                request.transactionsLastMinute(),
+                noise
+        );
+        return Mono.just(new AnalysisResponseDTO(probability, recommendedAction(probability, value)));
+    }
+
+    // Equivalente a predict_proba_with_simulator, com o ruído passado explicitamente
+    public static double riskScore(
+            double value,
+            int transactionCount,
+            double averageAmount,
+            String lastTransactionCountry,
+            long transactionsLastMinute,
+            double noise
+    ) {
+        double score = 0.0;
+
+        if (averageAmount > 0) {
+            if (value > averageAmount * 2) {
+                score += 0.4;
+            }
+        } else if (value > 1000) { // Se não há média, valor alto já é suspeito
+            score += 0.3;
+        }
+
+        if (!HOME_COUNTRY.equals(lastTransactionCountry)) {
+            score += 0.3;
+        }
+
+        if (transactionCount < 2) {
+            score += 0.2;
+        }
+
+        // Rajada de transações no último minuto (padrão de teste de cartão)
+        if (transactionsLastMinute > VELOCITY_MINUTE_LIMIT) {
+            score += 0.3;
+        }
+
+        double finalScore = Math.min(score, 1.0);
+        finalScore = Math.max(0.01, finalScore * (1 + noise));
+
+        return Math.min(finalScore, 1.0);
+    }
+
+    // Equivalente a get_cost_sensitive_action (Bayes Minimum Risk)
+    public static String recommendedAction(double probabilityOfFraud, double transactionValue) {
+        // Custo de um falso negativo: o valor total da transação
+        double costFn = transactionValue;
+        double threshold = (costFn + COST_FP) > 0 ? COST_FP / (costFn + COST_FP) : 1.0;
+
+        if (probabilityOfFraud > DECLINE_THRESHOLD) {
+            return DECLINE;
+        }
+        if (probabilityOfFraud > threshold) {
+            return REVIEW; // Precisa de análise humana
+        }
+        return APPROVE;
+    }
+}
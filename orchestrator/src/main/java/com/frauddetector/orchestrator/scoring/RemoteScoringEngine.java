@@ -0,0 +1,41 @@
+package com.frauddetector.orchestrator.scoring;
+
+import com.frauddetector.events.AnalysisResponseDTO;
+import com.frauddetector.orchestrator.dto.AnalysisRequestDTO;
+import com.frauddetector.orchestrator.resilience.DownstreamPolicy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+// Delega a inferência ao inference-service (POST /predict)
+@Component
+@ConditionalOnProperty(name = "orchestrator.scoring.engine", havingValue = "remote", matchIfMissing = true)
+public class RemoteScoringEngine implements ScoringEngine {
+
+    private final WebClient inferenceWebClient;
+    private final DownstreamPolicy inferencePolicy;
+
+    public RemoteScoringEngine(
+            @Qualifier("inferenceWebClient") WebClient inferenceWebClient,
+            @Qualifier("inferencePolicy") DownstreamPolicy inferencePolicy
+    ) {
+        this.inferenceWebClient = inferenceWebClient;
+        this.inferencePolicy = inferencePolicy;
+    }
+
+    @Override
+    public Mono<AnalysisResponseDTO> score(AnalysisRequestDTO request) {
+        return inferencePolicy.execute(() -> predict(request));
+    }
+
+    // Chamada JSON sem a política de resiliência; também usada como fallback pelo GrpcScoringEngine
+    Mono<AnalysisResponseDTO> predict(AnalysisRequestDTO request) {
+        return this.inferenceWebClient.post()
+                .uri("/predict")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(AnalysisResponseDTO.class);
+    }
+}
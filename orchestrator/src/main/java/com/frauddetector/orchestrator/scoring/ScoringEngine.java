@@ -0,0 +1,12 @@
+package com.frauddetector.orchestrator.scoring;
+
+import com.frauddetector.events.AnalysisResponseDTO;
+import com.frauddetector.orchestrator.dto.AnalysisRequestDTO;
+import reactor.core.publisher.Mono;
+
+// Calcula o score de risco e a ação recomendada para uma transação enriquecida.
+// A implementação é escolhida por `orchestrator.scoring.engine` (remote | grpc | batch | local).
+public interface ScoringEngine {
+
+    Mono<AnalysisResponseDTO> score(AnalysisRequestDTO request);
+}
@@ -0,0 +1,113 @@
+package com.frauddetector.orchestrator.service;
+
+import com.frauddetector.events.AnalysisResponseDTO;
+import com.frauddetector.orchestrator.config.ResilienceProperties;
+import com.frauddetector.orchestrator.dto.AnalysisOutcome;
+import com.frauddetector.orchestrator.dto.AnalysisRequestDTO;
+import com.frauddetector.orchestrator.dto.TransactionDTO;
+import com.frauddetector.orchestrator.journal.DecisionJournal;
+import com.frauddetector.orchestrator.metrics.AnalysisMetrics;
+import com.frauddetector.orchestrator.resilience.DownstreamPolicy;
+import com.frauddetector.orchestrator.scoring.ScoringEngine;
+import com.frauddetector.orchestrator.velocity.VelocityFeatures;
+import com.frauddetector.orchestrator.velocity.VelocityTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Fluxo de análise de uma transação: enriquecimento com o perfil + inferência
+@Service
+public class FraudAnalysisService {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final UserProfileCache userProfileCache;
+    private final ScoringEngine scoringEngine;
+    private final ResilienceProperties.Degraded degraded;
+    private final MeterRegistry meterRegistry;
+    private final AnalysisMetrics analysisMetrics;
+    private final DecisionJournal decisionJournal;
+    private final VelocityTracker velocityTracker;
+    // Um contador por motivo, registrado na primeira ocorrência
+    private final Map<String, Counter> degradedCounters = new ConcurrentHashMap<>();
+
+    public FraudAnalysisService(
+            UserProfileCache userProfileCache,
+            ScoringEngine scoringEngine,
+            ResilienceProperties resilienceProperties,
+            MeterRegistry meterRegistry,
+            AnalysisMetrics analysisMetrics,
+            DecisionJournal decisionJournal,
+            VelocityTracker velocityTracker
+    ) {
+        this.userProfileCache = userProfileCache;
+        this.scoringEngine = scoringEngine;
+        this.degraded = resilienceProperties.degraded();
+        this.meterRegistry = meterRegistry;
+        this.analysisMetrics = analysisMetrics;
+        this.decisionJournal = decisionJournal;
+        this.velocityTracker = velocityTracker;
+    }
+
+    public Mono<AnalysisOutcome> analyze(TransactionDTO transaction) {
+        long start = System.nanoTime();
+        // Conta a transação nas janelas do usuário antes de buscar o perfil
+        VelocityFeatures velocity = velocityTracker.record(transaction.userId(), transaction.value());
+
+        // Busca o perfil no cache local (ou no serviço de perfil em caso de miss)
+        Mono<AnalysisOutcome> analysis = analysisMetrics.timeStage(
+                AnalysisMetrics.STAGE_PROFILE, this.userProfileCache.get(transaction.userId())
+            )
+            .flatMap(userProfile -> {
+                // Prepara o corpo da requisição para o serviço de inferência
+                AnalysisRequestDTO analysisRequest = new AnalysisRequestDTO(
+                    transaction.userId(),
+                    transaction.value(),
+                    userProfile.transactionCount(),
+                    userProfile.averageAmount(),
+                    userProfile.lastTransactionCountry(),
+                    velocity.transactionsLastMinute(),
+                    velocity.amountLastMinute(),
+                    velocity.transactionsLastHour(),
+                    velocity.amountLastHour(),
+                    velocity.transactionsLastDay(),
+                    velocity.amountLastDay()
+                );
+
+                // Calcula o risco com os dados enriquecidos (remoto ou local)
+                return analysisMetrics.timeStage(
+                        AnalysisMetrics.STAGE_SCORING, this.scoringEngine.score(analysisRequest)
+                    )
+                    .map(AnalysisOutcome::completed)
+                    // Registra a decisão no diário, fora da thread da requisição
+                    .doOnNext(outcome -> decisionJournal.record(transaction, userProfile, outcome, start));
+            })
+            .onErrorResume(this::shouldDegrade, error -> degradedOutcome(error)
+                .doOnNext(outcome -> decisionJournal.record(transaction, null, outcome, start)));
+
+        return analysisMetrics.timeAnalysis(analysis);
+    }
+
+    private boolean shouldDegrade(Throwable error) {
+        return degraded.enabled() && DownstreamPolicy.isDownstreamFailure(error);
+    }
+
+    // Decisão conservadora quando o perfil ou a inferência estão indisponíveis
+    private Mono<AnalysisOutcome> degradedOutcome(Throwable error) {
+        String reason = error.getClass().getSimpleName();
+        logger.warn(">>> Análise degradada ({}): {}", reason, error.getMessage());
+        degradedCounters.computeIfAbsent(reason, key -> Counter.builder("orchestrator.analysis.degraded")
+                .tag("reason", key)
+                .register(meterRegistry))
+                .increment();
+
+        AnalysisResponseDTO response = new AnalysisResponseDTO(degraded.riskScore(), degraded.action());
+        return Mono.just(AnalysisOutcome.degraded(response, reason));
+    }
+}
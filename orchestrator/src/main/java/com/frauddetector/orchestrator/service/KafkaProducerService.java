@@ -1,26 +1,64 @@
 package com.frauddetector.orchestrator.service;
 
-import com.frauddetector.orchestrator.dto.AuditLogEvent;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frauddetector.events.AuditLogEvent;
+import com.frauddetector.orchestrator.config.AuditPublisherProperties;
+import com.frauddetector.orchestrator.kafka.SpillingKafkaPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
-@Service
-public class KafkaProducerService {
+import java.util.List;
 
-    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+// Publica os eventos de auditoria fora da thread da requisição, com fila limitada
+// e arquivo de contingência (ver SpillingKafkaPublisher). A chave é o userId, para que
+// os eventos de um usuário caiam sempre na mesma partição e sejam consumidos em ordem
+@Service
+public class KafkaProducerService implements SmartLifecycle {
 
-    private static final String TOPIC = "fraud_analysis_events";
-    private final KafkaTemplate<String, AuditLogEvent> kafkaTemplate;
+    private final SpillingKafkaPublisher<AuditLogEvent> publisher;
 
-    public KafkaProducerService(KafkaTemplate<String, AuditLogEvent> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public KafkaProducerService(
+            KafkaTemplate<String, AuditLogEvent> kafkaTemplate,
+            AuditPublisherProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            ObservationRegistry observationRegistry
+    ) {
+        this.publisher = new SpillingKafkaPublisher<>(
+                "audit", AuditLogEvent.class, AuditLogEvent::userId,
+                kafkaTemplate, properties, objectMapper, meterRegistry, observationRegistry
+        );
     }
 
     public void sendAuditEvent(AuditLogEvent event) {
-        // Envia a mensagem de forma assíncrona
-        kafkaTemplate.send(TOPIC, event);
-        logger.info(">>> Evento de auditoria enviado para o Kafka: {}", event);
+        publisher.publish(event);
+    }
+
+    public void sendAuditEvents(List<AuditLogEvent> events) {
+        publisher.publishAll(events);
+    }
+
+    @Override
+    public void start() {
+        publisher.start();
+    }
+
+    @Override
+    public void stop() {
+        publisher.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return publisher.isRunning();
+    }
+
+    // Para depois do servidor web, para não perder eventos das últimas requisições
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
     }
 }
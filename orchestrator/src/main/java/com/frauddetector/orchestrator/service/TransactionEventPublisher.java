@@ -0,0 +1,77 @@
+package com.frauddetector.orchestrator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frauddetector.orchestrator.config.TransactionEventProperties;
+import com.frauddetector.orchestrator.dto.AnalysisOutcome;
+import com.frauddetector.orchestrator.dto.TransactionDTO;
+import com.frauddetector.orchestrator.dto.TransactionEvent;
+import com.frauddetector.orchestrator.kafka.SpillingKafkaPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+// Publica as transações analisadas no tópico transaction_events. O userId é a chave,
+// então os eventos de um mesmo usuário chegam em ordem ao profile-service
+@Service
+public class TransactionEventPublisher implements SmartLifecycle {
+
+    private final TransactionEventProperties properties;
+    private final SpillingKafkaPublisher<TransactionEvent> publisher;
+
+    public TransactionEventPublisher(
+            KafkaTemplate<String, TransactionEvent> kafkaTemplate,
+            TransactionEventProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            ObservationRegistry observationRegistry
+    ) {
+        this.properties = properties;
+        this.publisher = new SpillingKafkaPublisher<>(
+                "transactions", TransactionEvent.class, TransactionEvent::userId,
+                kafkaTemplate, properties, objectMapper, meterRegistry, observationRegistry
+        );
+    }
+
+    public void publish(TransactionDTO transaction, AnalysisOutcome outcome) {
+        // Decisões degradadas não trazem uma recomendação real do modelo
+        if (!properties.enabled() || outcome.isDegraded() || transaction.userId() == null
+                || transaction.value() == null) {
+            return;
+        }
+        publisher.publish(new TransactionEvent(
+                transaction.userId(),
+                transaction.value(),
+                transaction.country(),
+                outcome.riskAnalysis().recommendedAction(),
+                Instant.now()
+        ));
+    }
+
+    @Override
+    public void start() {
+        if (properties.enabled()) {
+            publisher.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (publisher.isRunning()) {
+            publisher.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return publisher.isRunning();
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+}
@@ -0,0 +1,75 @@
+package com.frauddetector.orchestrator.service;
+
+import com.frauddetector.orchestrator.config.ProfileCacheProperties;
+import com.frauddetector.orchestrator.dto.UserProfileDTO;
+import com.frauddetector.orchestrator.resilience.DownstreamPolicy;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+@Service
+public class UserProfileCache {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final WebClient profileWebClient;
+    private final DownstreamPolicy profilePolicy;
+    private final AsyncLoadingCache<String, UserProfileDTO> cache;
+
+    public UserProfileCache(
+            @Qualifier("profileWebClient") WebClient profileWebClient,
+            @Qualifier("profilePolicy") DownstreamPolicy profilePolicy,
+            ProfileCacheProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.profileWebClient = profileWebClient;
+        this.profilePolicy = profilePolicy;
+
+        // Cache limitado por tamanho e TTL; buscas concorrentes do mesmo usuário
+        // compartilham o mesmo future de carregamento
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .refreshAfterWrite(properties.refreshAfterWrite())
+                .recordStats()
+                .buildAsync((userId, executor) -> fetchProfile(userId).toFuture());
+
+        // Expõe hits, misses e evictions em /actuator/metrics/cache.*
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "userProfiles");
+    }
+
+    public Mono<UserProfileDTO> get(String userId) {
+        // suppressCancel: o cancelamento de um chamador não derruba a carga compartilhada
+        return Mono.fromFuture(() -> cache.get(userId), true);
+    }
+
+    public void invalidate(String userId) {
+        cache.synchronous().invalidate(userId);
+    }
+
+    // Cada instância usa um grupo próprio para receber todas as invalidações
+    @KafkaListener(
+            topics = "${orchestrator.profile-cache.invalidation-topic:profile_change_events}",
+            groupId = "orchestrator-profile-cache-${random.uuid}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void onProfileChanged(String userId) {
+        logger.debug(">>> Perfil alterado, removendo do cache: {}", userId);
+        invalidate(userId);
+    }
+
+    private Mono<UserProfileDTO> fetchProfile(String userId) {
+        return profilePolicy.execute(() -> this.profileWebClient.get()
+                .uri("/profiles/{userId}", userId)
+                .retrieve()
+                .bodyToMono(UserProfileDTO.class));
+    }
+}
@@ -0,0 +1,101 @@
+package com.frauddetector.orchestrator.velocity;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Baldes de um usuário para todas as janelas, em um único AtomicLongArray: para cada balde,
+// uma posição com a contagem e outra com a soma em centavos. Cada posição guarda a época do
+// balde nos 24 bits altos e o valor nos 40 bits baixos, então zerar um balde vencido e somar
+// nele são o mesmo CAS, sem lock e sem alocação por transação
+final class UserVelocity {
+
+    private static final VelocityWindow[] WINDOWS = VelocityWindow.values();
+
+    static final int SLOTS = slots();
+
+    private static final int VALUE_BITS = 40;
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+    private static final long EPOCH_MASK = (1L << (Long.SIZE - VALUE_BITS)) - 1;
+
+    private final AtomicLongArray slots;
+
+    UserVelocity() {
+        this.slots = new AtomicLongArray(SLOTS);
+    }
+
+    // Restaurado de um snapshot: baldes de épocas já vencidas são ignorados na leitura
+    UserVelocity(long[] values) {
+        this.slots = new AtomicLongArray(values);
+    }
+
+    void record(long nowMillis, long cents) {
+        int offset = 0;
+        for (VelocityWindow window : WINDOWS) {
+            long epoch = nowMillis / window.bucketMillis;
+            int index = offset + (int) (epoch % window.buckets) * 2;
+            add(index, epoch, 1);
+            add(index + 1, epoch, cents);
+            offset += window.buckets * 2;
+        }
+    }
+
+    VelocityFeatures read(long nowMillis) {
+        long[] counts = new long[WINDOWS.length];
+        long[] cents = new long[WINDOWS.length];
+        int offset = 0;
+        for (int w = 0; w < WINDOWS.length; w++) {
+            VelocityWindow window = WINDOWS[w];
+            long epoch = nowMillis / window.bucketMillis;
+            // Soma só os baldes cuja época está dentro da janela atual
+            for (int age = 0; age < window.buckets; age++) {
+                long bucketEpoch = epoch - age;
+                int index = offset + (int) (bucketEpoch % window.buckets) * 2;
+                counts[w] += valueAt(index, bucketEpoch);
+                cents[w] += valueAt(index + 1, bucketEpoch);
+            }
+            offset += window.buckets * 2;
+        }
+        return new VelocityFeatures(
+                counts[0], cents[0] / 100.0,
+                counts[1], cents[1] / 100.0,
+                counts[2], cents[2] / 100.0
+        );
+    }
+
+    // Sem nenhum balde dentro da janela mais longa, não há o que guardar no snapshot
+    boolean isIdle(long nowMillis) {
+        return read(nowMillis).transactionsLastDay() == 0;
+    }
+
+    long[] values() {
+        long[] values = new long[SLOTS];
+        for (int i = 0; i < SLOTS; i++) {
+            values[i] = slots.get(i);
+        }
+        return values;
+    }
+
+    private void add(int index, long epoch, long delta) {
+        long tag = epoch & EPOCH_MASK;
+        while (true) {
+            long current = slots.get(index);
+            long value = (current >>> VALUE_BITS) == tag ? (current & VALUE_MASK) + delta : delta;
+            long next = (tag << VALUE_BITS) | Math.min(value, VALUE_MASK);
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    private long valueAt(int index, long epoch) {
+        long current = slots.get(index);
+        return (current >>> VALUE_BITS) == (epoch & EPOCH_MASK) ? current & VALUE_MASK : 0;
+    }
+
+    private static int slots() {
+        int total = 0;
+        for (VelocityWindow window : WINDOWS) {
+            total += window.buckets * 2;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,13 @@
+package com.frauddetector.orchestrator.velocity;
+
+// Quantidade e valor somado das transações do usuário em cada janela, incluindo a atual
+public record VelocityFeatures(
+        long transactionsLastMinute,
+        double amountLastMinute,
+        long transactionsLastHour,
+        double amountLastHour,
+        long transactionsLastDay,
+        double amountLastDay
+) {
+    public static final VelocityFeatures EMPTY = new VelocityFeatures(0, 0.0, 0, 0.0, 0, 0.0);
+}
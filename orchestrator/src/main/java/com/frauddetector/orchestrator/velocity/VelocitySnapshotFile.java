@@ -0,0 +1,87 @@
+package com.frauddetector.orchestrator.velocity;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+// Formato binário do snapshot: cabeçalho (magic, versão, posições por usuário) seguido de
+// userId + baldes brutos de cada usuário. As épocas gravadas nos baldes fazem o descarte
+// do que venceu enquanto o serviço estava parado, sem nenhum ajuste na carga
+final class VelocitySnapshotFile {
+
+    private static final int MAGIC = 0x56454C4F; // "VELO"
+    private static final int VERSION = 1;
+
+    private final Path file;
+
+    VelocitySnapshotFile(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.file = directory.resolve("velocity.snapshot");
+    }
+
+    Path path() {
+        return file;
+    }
+
+    // Grava em <arquivo>.tmp e renomeia no fim: o arquivo com o nome final está sempre completo
+    int write(Map<String, UserVelocity> users, long nowMillis) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        int written = 0;
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(UserVelocity.SLOTS);
+            for (Map.Entry<String, UserVelocity> user : users.entrySet()) {
+                if (user.getValue().isIdle(nowMillis)) {
+                    continue;
+                }
+                out.writeBoolean(true);
+                out.writeUTF(user.getKey());
+                for (long value : user.getValue().values()) {
+                    out.writeLong(value);
+                }
+                written++;
+            }
+            out.writeBoolean(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    // Snapshot ausente ou de outro layout de janelas: começa do zero
+    int read(BiConsumer<String, long[]> consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != UserVelocity.SLOTS) {
+                throw new IOException("layout de snapshot incompatível: " + file);
+            }
+            Map<String, long[]> users = new HashMap<>();
+            while (in.readBoolean()) {
+                String userId = in.readUTF();
+                long[] values = new long[UserVelocity.SLOTS];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = in.readLong();
+                }
+                users.put(userId, values);
+            }
+            // Só entrega os usuários depois de ler o arquivo inteiro, então um arquivo truncado não carrega pela metade
+            users.forEach(consumer);
+            return users.size();
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+}
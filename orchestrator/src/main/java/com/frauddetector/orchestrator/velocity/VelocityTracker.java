@@ -0,0 +1,132 @@
+package com.frauddetector.orchestrator.velocity;
+
+import com.frauddetector.orchestrator.config.VelocityProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Contadores de velocidade por usuário mantidos em memória, atualizados a cada análise.
+// Usuários sem transação dentro da janela mais longa expiram do cache; periodicamente
+// (e na parada) os contadores vão para um snapshot em disco, recarregado na partida
+@Component
+public class VelocityTracker implements SmartLifecycle {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final VelocityProperties properties;
+    private final Cache<String, UserVelocity> users;
+
+    private volatile boolean running;
+    private VelocitySnapshotFile snapshotFile;
+    private Thread snapshotThread;
+
+    public VelocityTracker(VelocityProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(properties.maximumUsers())
+                .expireAfterAccess(VelocityWindow.DAY.span())
+                .build();
+
+        Gauge.builder("orchestrator.velocity.users", users, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    // Conta a transação e devolve as janelas já incluindo ela
+    public VelocityFeatures record(String userId, Double value) {
+        if (!properties.enabled() || userId == null) {
+            return VelocityFeatures.EMPTY;
+        }
+        long now = System.currentTimeMillis();
+        UserVelocity velocity = users.get(userId, key -> new UserVelocity());
+        velocity.record(now, toCents(value));
+        return velocity.read(now);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled() || running) {
+            return;
+        }
+        try {
+            snapshotFile = new VelocitySnapshotFile(Path.of(properties.snapshotDirectory()));
+            int restored = snapshotFile.read((userId, values) -> users.put(userId, new UserVelocity(values)));
+            logger.info(">>> Contadores de velocidade restaurados para {} usuários", restored);
+        } catch (IOException e) {
+            logger.warn(">>> Snapshot de velocidade ignorado: {}", e.getMessage());
+        }
+        running = true;
+        if (snapshotFile != null) {
+            snapshotThread = Thread.ofPlatform()
+                    .name("velocity-snapshot")
+                    .daemon(true)
+                    .start(this::runSnapshots);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (snapshotThread == null) {
+            return;
+        }
+        LockSupport.unpark(snapshotThread);
+        try {
+            snapshotThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotThread = null;
+        // Último snapshot depois que o servidor web parou de aceitar requisições
+        writeSnapshot();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Mesma fase do diário de decisões: carrega antes e grava depois do servidor web
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private void runSnapshots() {
+        long interval = properties.snapshotInterval().toNanos();
+        long next = System.nanoTime() + interval;
+        while (running) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            writeSnapshot();
+            next = System.nanoTime() + interval;
+        }
+    }
+
+    private void writeSnapshot() {
+        try {
+            snapshotFile.write(users.asMap(), System.currentTimeMillis());
+        } catch (IOException e) {
+            logger.warn(">>> Falha ao gravar o snapshot de velocidade em {}: {}", snapshotFile.path(), e.getMessage());
+        }
+    }
+
+    private static long toCents(Double value) {
+        if (value == null || !(value > 0)) {
+            return 0;
+        }
+        return Math.round(value * 100);
+    }
+}
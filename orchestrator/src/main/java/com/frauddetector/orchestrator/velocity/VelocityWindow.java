@@ -0,0 +1,24 @@
+package com.frauddetector.orchestrator.velocity;
+
+import java.time.Duration;
+
+// Janelas deslizantes acompanhadas por usuário. Cada uma é um anel de baldes de tamanho
+// fixo: a janela cobre os baldes mais recentes, então a borda antiga tem a resolução do balde
+public enum VelocityWindow {
+
+    MINUTE(Duration.ofSeconds(5), 12),
+    HOUR(Duration.ofMinutes(5), 12),
+    DAY(Duration.ofHours(1), 24);
+
+    final long bucketMillis;
+    final int buckets;
+
+    VelocityWindow(Duration bucket, int buckets) {
+        this.bucketMillis = bucket.toMillis();
+        this.buckets = buckets;
+    }
+
+    public Duration span() {
+        return Duration.ofMillis(bucketMillis * buckets);
+    }
+}
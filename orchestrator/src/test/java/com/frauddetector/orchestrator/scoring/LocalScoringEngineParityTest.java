@@ -0,0 +1,40 @@
+package com.frauddetector.orchestrator.scoring;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvFileSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Paridade com as regras do inference-service. As tabelas em scoring-parity/ são geradas por
+// inference-service/tools/generate_parity_fixtures.py a partir de app/main.py com o ruído
+// fixado; se as regras mudarem em um lado, o script precisa ser rodado de novo
+class LocalScoringEngineParityTest {
+
+    @ParameterizedTest(name = "{0}")
+    @CsvFileSource(resources = "/scoring-parity/risk-score.csv", numLinesToSkip = 1)
+    void riskScoreMatchesSimulator(
+            String scenario,
+            double value,
+            int transactionCount,
+            double averageAmount,
+            String lastTransactionCountry,
+            long transactionsLastMinute,
+            double noise,
+            double expectedScore,
+            String expectedAction
+    ) {
+        double score = LocalScoringEngine.riskScore(
+                value, transactionCount, averageAmount, lastTransactionCountry, transactionsLastMinute, noise
+        );
+
+        // Mesmas operações em double nos dois lados: o score tem que ser idêntico
+        assertEquals(expectedScore, score, 0.0);
+        assertEquals(expectedAction, LocalScoringEngine.recommendedAction(score, value));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvFileSource(resources = "/scoring-parity/recommended-action.csv", numLinesToSkip = 1)
+    void recommendedActionMatchesSimulator(String scenario, double probability, double value, String expectedAction) {
+        assertEquals(expectedAction, LocalScoringEngine.recommendedAction(probability, value));
+    }
+}
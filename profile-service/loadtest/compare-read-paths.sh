@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+#
+# Compara throughput e latência de cauda de GET /profiles/{userId} entre o caminho
+# R2DBC (padrão) e o caminho JPA anterior, com o mesmo jar, núcleos e banco.
+#
+# Pré-requisitos: db-profile rodando (docker compose up db-profile) e o wrk2
+# (https://github.com/giltene/wrk2) no PATH, já que a taxa de chegada é fixa (-R).
+#
+# Uso: DB_NAME=profiles DB_USER=... DB_PASSWORD=... RATE=5000 ./loadtest/compare-read-paths.sh
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CPUS=${CPUS:-2}
+RATE=${RATE:-5000}
+DURATION=${DURATION:-60s}
+WARMUP=${WARMUP:-20s}
+CONNECTIONS=${CONNECTIONS:-256}
+THREADS=${THREADS:-4}
+PORT=${PORT:-18082}
+USER_ID=${USER_ID:-user123}
+WRK=${WRK:-wrk}
+DB_HOST=${DB_HOST:-localhost:5432}
+RESULTS=loadtest/results
+
+: "${DB_NAME:?defina DB_NAME}" "${DB_USER:?defina DB_USER}" "${DB_PASSWORD:?defina DB_PASSWORD}"
+
+mkdir -p "$RESULTS"
+./mvnw -q -B -DskipTests clean package
+JAR=$(ls target/profile-service-*.jar | head -n 1)
+
+run() {
+    local path=$1
+
+    taskset -c "0-$((CPUS - 1))" java -XX:ActiveProcessorCount="$CPUS" -jar "$JAR" \
+        --server.port="$PORT" \
+        --profile.read-path="$path" \
+        --spring.datasource.url="jdbc:postgresql://$DB_HOST/$DB_NAME" \
+        --spring.datasource.username="$DB_USER" \
+        --spring.datasource.password="$DB_PASSWORD" \
+        --spring.r2dbc.url="r2dbc:postgresql://$DB_HOST/$DB_NAME" \
+        --spring.r2dbc.username="$DB_USER" \
+        --spring.r2dbc.password="$DB_PASSWORD" \
+        > "$RESULTS/$path.log" 2>&1 &
+    local pid=$!
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+    local url="http://localhost:$PORT/profiles/$USER_ID"
+    "$WRK" -t"$THREADS" -c"$CONNECTIONS" -d"$WARMUP" -R"$RATE" "$url" > /dev/null
+    "$WRK" -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" -R"$RATE" --latency "$url" > "$RESULTS/$path.txt"
+
+    kill "$pid"; wait "$pid" 2> /dev/null || true
+}
+
+summary() {
+    local path=$1
+    local rps p99 p999
+    rps=$(awk '/Requests\/sec/ {print $2}' "$RESULTS/$path.txt")
+    p99=$(awk '$1 == "99.000%" {print $2}' "$RESULTS/$path.txt")
+    p999=$(awk '$1 == "99.900%" {print $2}' "$RESULTS/$path.txt")
+    printf "%-8s %12s %12s %12s\n" "$path" "$rps" "$p99" "$p999"
+}
+
+run r2dbc
+run jpa
+
+echo
+echo "CPUs: $CPUS  taxa alvo: $RATE req/s  duração: $DURATION"
+printf "%-8s %12s %12s %12s\n" "caminho" "req/s" "p99" "p99.9"
+summary r2dbc
+summary jpa
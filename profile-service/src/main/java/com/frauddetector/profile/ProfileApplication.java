@@ -5,19 +5,27 @@ import com.frauddetector.profile.repository.UserProfileRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class ProfileApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(ProfileApplication.class, args);
     }
 
-    // Dados mockados para teste
+    // Dados mockados para teste. Só insere se o usuário não existir: depois disso o perfil é
+    // mantido pela agregação de transaction_events e não pode voltar aos valores iniciais
     @Bean
     CommandLineRunner initDatabase(UserProfileRepository repository) {
         return args -> {
+            if (repository.existsById("user123")) {
+                return;
+            }
             UserProfile testUser = new UserProfile();
             testUser.setUserId("user123");
             testUser.setTransactionCount(127);
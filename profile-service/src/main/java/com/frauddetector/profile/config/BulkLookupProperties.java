@@ -0,0 +1,14 @@
+package com.frauddetector.profile.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Limites da consulta em lote de perfis (POST /profiles/bulk)
+@ConfigurationProperties(prefix = "profile.bulk")
+public record BulkLookupProperties(
+        // IDs por consulta ao banco (um único WHERE user_id = ANY(...) por bloco)
+        @DefaultValue("500") int chunkSize,
+        // Blocos consultados em paralelo, mantendo a ordem da entrada na resposta
+        @DefaultValue("4") int concurrency,
+        @DefaultValue("10000") int maxIds
+) {}
@@ -0,0 +1,20 @@
+package com.frauddetector.profile.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Set;
+
+// Atualização incremental dos perfis a partir de transaction_events
+@ConfigurationProperties(prefix = "profile.aggregation")
+public record ProfileAggregationProperties(
+        @DefaultValue("transaction_events") String topic,
+        // Só transações com estas recomendações entram no histórico do usuário
+        @DefaultValue("APPROVE") Set<String> countedActions,
+        // Intervalo do write-behind; antes disso, o flush ocorre ao acumular maxPendingUsers
+        @DefaultValue("1s") Duration flushInterval,
+        @DefaultValue("10000") int maxPendingUsers,
+        // Usuários alterados a cada flush, para invalidar o cache do orquestrador
+        @DefaultValue("profile_change_events") String changeTopic
+) {}
@@ -0,0 +1,16 @@
+package com.frauddetector.profile.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Snapshot de perfis mapeado em memória (profile.read-path=snapshot)
+@ConfigurationProperties(prefix = "profile.snapshot")
+public record ProfileSnapshotProperties(
+        @DefaultValue("profile-snapshot") String directory,
+        // Reconstrução completa; entre elas, os perfis alterados entram por profile_change_events
+        @DefaultValue("10m") Duration rebuildInterval,
+        // Linhas por ida ao banco no cursor de leitura
+        @DefaultValue("10000") int fetchSize
+) {}
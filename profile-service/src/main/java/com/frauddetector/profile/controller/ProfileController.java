@@ -1,14 +1,29 @@
 package com.frauddetector.profile.controller;
 
+import com.frauddetector.profile.config.BulkLookupProperties;
+import com.frauddetector.profile.dto.BulkProfileResultDTO;
 import com.frauddetector.profile.entity.UserProfile;
-import com.frauddetector.profile.repository.UserProfileRepository;
+import com.frauddetector.profile.service.ProfileReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/profiles")
@@ -16,19 +31,57 @@ public class ProfileController {
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    private final UserProfileRepository userProfileRepository;
+    private final ProfileReader profileReader;
+    private final BulkLookupProperties bulkProperties;
 
-    public ProfileController(UserProfileRepository userProfileRepository) {
-        this.userProfileRepository = userProfileRepository;
+    public ProfileController(ProfileReader profileReader, BulkLookupProperties bulkProperties) {
+        this.profileReader = profileReader;
+        this.bulkProperties = bulkProperties;
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<UserProfile> getUserProfile(@PathVariable String userId) {
-        logger.info(">>> Buscando perfil no DB para o usuário: {}", userId);
+    public Mono<ResponseEntity<UserProfile>> getUserProfile(@PathVariable String userId) {
+        logger.debug(">>> Buscando perfil no DB para o usuário: {}", userId);
 
         // Busca o perfil no banco de dados pelo ID
-        return userProfileRepository.findById(userId)
+        return profileReader.findById(userId)
                 .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Recebe uma lista de IDs (JSON) e devolve um item por ID distinto, na ordem da entrada.
+    // A resposta é gerada bloco a bloco: JSON array por padrão ou NDJSON com Accept: application/x-ndjson.
+    @PostMapping(
+            value = "/bulk",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public Flux<BulkProfileResultDTO> getUserProfiles(@RequestBody List<String> userIds) {
+        Set<String> distinctIds = new LinkedHashSet<>(userIds);
+        if (distinctIds.size() > bulkProperties.maxIds()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "Máximo de " + bulkProperties.maxIds() + " IDs por requisição"
+            );
+        }
+
+        return Flux.fromIterable(distinctIds)
+                .buffer(bulkProperties.chunkSize())
+                .flatMapSequential(this::lookupChunk, bulkProperties.concurrency());
+    }
+
+    private Flux<BulkProfileResultDTO> lookupChunk(List<String> chunk) {
+        return profileReader.findAllById(chunk)
+                .collectMap(UserProfile::getUserId, Function.identity())
+                .flatMapIterable(found -> toResults(chunk, found));
+    }
+
+    private static List<BulkProfileResultDTO> toResults(List<String> chunk, Map<String, UserProfile> found) {
+        return chunk.stream()
+                .map(userId -> {
+                    UserProfile profile = found.get(userId);
+                    return profile != null
+                            ? BulkProfileResultDTO.found(profile)
+                            : BulkProfileResultDTO.missing(userId);
+                })
+                .toList();
     }
 }
\ No newline at end of file
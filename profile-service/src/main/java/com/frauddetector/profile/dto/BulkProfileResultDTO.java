@@ -0,0 +1,21 @@
+package com.frauddetector.profile.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.frauddetector.profile.entity.UserProfile;
+
+// Um item da resposta de POST /profiles/bulk. IDs inexistentes voltam com found=false,
+// para que o chamador diferencie "não encontrado" de uma falha da consulta.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkProfileResultDTO(
+        String userId,
+        boolean found,
+        UserProfile profile
+) {
+    public static BulkProfileResultDTO found(UserProfile profile) {
+        return new BulkProfileResultDTO(profile.getUserId(), true, profile);
+    }
+
+    public static BulkProfileResultDTO missing(String userId) {
+        return new BulkProfileResultDTO(userId, false, null);
+    }
+}
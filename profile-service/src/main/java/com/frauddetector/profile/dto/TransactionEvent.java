@@ -0,0 +1,12 @@
+package com.frauddetector.profile.dto;
+
+import java.time.Instant;
+
+// Transação analisada publicada pelo orquestrador no tópico transaction_events
+public record TransactionEvent(
+        String userId,
+        double value,
+        String country,
+        String recommendedAction,
+        Instant timestamp
+) {}
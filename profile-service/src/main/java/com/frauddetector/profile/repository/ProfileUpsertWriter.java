@@ -0,0 +1,101 @@
+package com.frauddetector.profile.repository;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Aplica deltas de perfil com um único batch JDBC de upserts por transação. Na mesma
+// transação grava o próximo offset de cada partição de transaction_events coberta pelos
+// deltas: o banco é a fonte dos offsets, e um evento nunca é somado duas vezes (ver
+// ProfileAggregator)
+@Repository
+public class ProfileUpsertWriter implements InitializingBean {
+
+    // Média incremental: nova = antiga + (média do delta - antiga) * n / (total antigo + n).
+    // Sem país no delta, mantém o último gravado (ou UNK para um usuário novo, já que a
+    // inferência exige o campo)
+    private static final String UPSERT_SQL = """
+            INSERT INTO user_profiles (user_id, transaction_count, average_amount, last_transaction_country)
+            VALUES (?, ?, ?, COALESCE(?, 'UNK'))
+            ON CONFLICT (user_id) DO UPDATE SET
+                average_amount = user_profiles.average_amount
+                    + (EXCLUDED.average_amount - user_profiles.average_amount) * EXCLUDED.transaction_count
+                    / (user_profiles.transaction_count + EXCLUDED.transaction_count),
+                transaction_count = user_profiles.transaction_count + EXCLUDED.transaction_count,
+                last_transaction_country = COALESCE(?, user_profiles.last_transaction_country)
+            """;
+
+    private static final String OFFSET_SQL = """
+            INSERT INTO profile_aggregation_offsets (topic, partition_id, next_offset)
+            VALUES (?, ?, ?)
+            ON CONFLICT (topic, partition_id) DO UPDATE SET
+                next_offset = GREATEST(profile_aggregation_offsets.next_offset, EXCLUDED.next_offset)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // O gerenciador JDBC/JPA é injetado explicitamente: o R2DBC registra outro (reativo)
+    public ProfileUpsertWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS profile_aggregation_offsets (
+                    topic        VARCHAR(255) NOT NULL,
+                    partition_id INT          NOT NULL,
+                    next_offset  BIGINT       NOT NULL,
+                    PRIMARY KEY (topic, partition_id)
+                )
+                """);
+    }
+
+    public void upsertAll(List<ProfileIncrement> increments, Map<TopicPartition, Long> nextOffsets) {
+        if (increments.isEmpty() && nextOffsets.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<TopicPartition, Long>> offsets = List.copyOf(nextOffsets.entrySet());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, increments, increments.size(), (ps, increment) -> {
+                ps.setString(1, increment.userId());
+                ps.setInt(2, increment.count());
+                ps.setDouble(3, increment.mean());
+                ps.setObject(4, increment.country(), Types.VARCHAR);
+                ps.setObject(5, increment.country(), Types.VARCHAR);
+            });
+            jdbcTemplate.batchUpdate(OFFSET_SQL, offsets, offsets.size(), (ps, offset) -> {
+                ps.setString(1, offset.getKey().topic());
+                ps.setInt(2, offset.getKey().partition());
+                ps.setLong(3, offset.getValue());
+            });
+        });
+    }
+
+    // Próximo offset gravado de cada partição; partições nunca gravadas ficam de fora
+    public Map<TopicPartition, Long> nextOffsets(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            jdbcTemplate.query(
+                    "SELECT next_offset FROM profile_aggregation_offsets WHERE topic = ? AND partition_id = ?",
+                    (RowCallbackHandler) rs -> offsets.put(partition, rs.getLong(1)),
+                    partition.topic(), partition.partition()
+            );
+        }
+        return offsets;
+    }
+
+    public record ProfileIncrement(String userId, int count, double mean, String country) {}
+}
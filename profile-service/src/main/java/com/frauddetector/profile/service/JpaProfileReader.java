@@ -0,0 +1,38 @@
+package com.frauddetector.profile.service;
+
+import com.frauddetector.profile.entity.UserProfile;
+import com.frauddetector.profile.repository.UserProfileRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+
+// Caminho anterior (JPA/Hibernate). A chamada bloqueante roda no boundedElastic para
+// não travar o event loop; mantido como alternativa e para comparação de desempenho.
+@Service
+@ConditionalOnProperty(name = "profile.read-path", havingValue = "jpa")
+public class JpaProfileReader implements ProfileReader {
+
+    private final UserProfileRepository userProfileRepository;
+
+    public JpaProfileReader(UserProfileRepository userProfileRepository) {
+        this.userProfileRepository = userProfileRepository;
+    }
+
+    @Override
+    public Mono<UserProfile> findById(String userId) {
+        return Mono.fromCallable(() -> userProfileRepository.findById(userId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public Flux<UserProfile> findAllById(Collection<String> userIds) {
+        return Mono.fromCallable(() -> userProfileRepository.findAllById(userIds))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(profiles -> profiles);
+    }
+}
@@ -0,0 +1,285 @@
+package com.frauddetector.profile.service;
+
+import com.frauddetector.profile.config.ProfileAggregationProperties;
+import com.frauddetector.profile.dto.TransactionEvent;
+import com.frauddetector.profile.repository.ProfileUpsertWriter;
+import com.frauddetector.profile.repository.ProfileUpsertWriter.ProfileIncrement;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Mantém os perfis atualizados a partir de transaction_events. As transações são
+// acumuladas por usuário em memória (contagem, soma, último país) e gravadas em lote
+// (write-behind): um upsert por usuário a cada flush, não um UPDATE por transação.
+// Cada flush grava, na mesma transação dos upserts, o próximo offset de cada partição
+// (profile_aggregation_offsets), e ao receber partições o consumidor se posiciona nesses
+// offsets: um evento já somado não é somado de novo depois de uma queda. Ao perder
+// partições em um rebalance, o pendente é gravado antes de o novo dono ler os offsets.
+// Os offsets do Kafka também são confirmados após o flush, mas só valem para partições
+// ainda sem registro no banco.
+@Service
+public class ProfileAggregator implements SmartLifecycle, ConsumerAwareRebalanceListener {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final ProfileUpsertWriter writer;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ProfileAggregationProperties properties;
+
+    private final Counter appliedEvents;
+    private final Counter ignoredEvents;
+    private final Counter undecodableEvents;
+    private final Counter flushedProfiles;
+    private final Timer flushTime;
+
+    // Protegidos por pendingLock; o flush troca os dois por instâncias novas
+    private final Object pendingLock = new Object();
+    private Map<TopicPartition, PartitionPending> pending = new HashMap<>();
+    private List<Acknowledgment> pendingAcks = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public ProfileAggregator(
+            ProfileUpsertWriter writer,
+            KafkaTemplate<String, String> kafkaTemplate,
+            ProfileAggregationProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.writer = writer;
+        this.kafkaTemplate = kafkaTemplate;
+        this.properties = properties;
+        this.appliedEvents = Counter.builder("profile.aggregation.events")
+                .tag("result", "applied")
+                .register(meterRegistry);
+        this.ignoredEvents = Counter.builder("profile.aggregation.events")
+                .tag("result", "ignored")
+                .register(meterRegistry);
+        this.undecodableEvents = Counter.builder("profile.aggregation.events")
+                .tag("result", "undecodable")
+                .register(meterRegistry);
+        this.flushedProfiles = Counter.builder("profile.aggregation.flushed")
+                .description("Perfis gravados pelo write-behind")
+                .register(meterRegistry);
+        this.flushTime = Timer.builder("profile.aggregation.flush")
+                .description("Tempo de um flush de perfis no banco")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = "${profile.aggregation.topic:transaction_events}", groupId = "profile_aggregator", batch = "true")
+    public void consume(List<ConsumerRecord<String, TransactionEvent>> records, Acknowledgment acknowledgment) {
+        int pendingUsers = 0;
+        synchronized (pendingLock) {
+            PartitionPending partition = null;
+            for (ConsumerRecord<String, TransactionEvent> record : records) {
+                // Os registros de um poll vêm agrupados por partição
+                if (partition == null || !partition.owns(record)) {
+                    partition = pending.computeIfAbsent(
+                            new TopicPartition(record.topic(), record.partition()), key -> new PartitionPending(key)
+                    );
+                }
+                partition.nextOffset = Math.max(partition.nextOffset, record.offset() + 1);
+
+                TransactionEvent event = record.value();
+                // Valor nulo: registro que não decodificou (ErrorHandlingDeserializer), só é pulado
+                if (event == null) {
+                    undecodableEvents.increment();
+                    continue;
+                }
+                if (event.userId() == null || !properties.countedActions().contains(event.recommendedAction())) {
+                    ignoredEvents.increment();
+                    continue;
+                }
+                partition.deltas.computeIfAbsent(event.userId(), userId -> new ProfileDelta())
+                        .add(event.value(), event.country());
+                appliedEvents.increment();
+            }
+            pendingAcks.add(acknowledgment);
+            for (PartitionPending partitionPending : pending.values()) {
+                pendingUsers += partitionPending.deltas.size();
+            }
+        }
+        // Com muitos usuários pendentes, o próprio consumidor grava antes do próximo poll
+        if (pendingUsers >= properties.maxPendingUsers()) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${profile.aggregation.flush-interval:1s}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    // Um flush por vez; o consumidor só espera pelo lock curto da troca dos mapas
+    public synchronized void flush() {
+        Map<TopicPartition, PartitionPending> partitions;
+        List<Acknowledgment> acks;
+        synchronized (pendingLock) {
+            if (pending.isEmpty() && pendingAcks.isEmpty()) {
+                return;
+            }
+            partitions = pending;
+            acks = pendingAcks;
+            pending = new HashMap<>();
+            pendingAcks = new ArrayList<>();
+        }
+
+        // Com a chave userId, um usuário só aparece em mais de uma partição se o número de
+        // partições mudou; nesse caso os deltas são somados em uma cópia
+        Map<String, ProfileDelta> deltas = new HashMap<>();
+        Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+        for (PartitionPending partition : partitions.values()) {
+            nextOffsets.put(partition.topicPartition, partition.nextOffset);
+            partition.deltas.forEach((userId, delta) -> deltas.merge(userId, delta, (first, second) -> {
+                ProfileDelta merged = new ProfileDelta();
+                merged.mergeOlder(first);
+                merged.mergeOlder(second);
+                return merged;
+            }));
+        }
+
+        // Ordena por usuário para que flushes concorrentes travem as linhas na mesma ordem
+        List<ProfileIncrement> increments = new ArrayList<>(deltas.size());
+        deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> increments.add(new ProfileIncrement(
+                        entry.getKey(), entry.getValue().count(), entry.getValue().mean(), entry.getValue().lastCountry()
+                )));
+
+        try {
+            flushTime.record(() -> writer.upsertAll(increments, nextOffsets));
+        } catch (RuntimeException e) {
+            logger.warn(">>> Falha ao gravar {} perfis, nova tentativa no próximo flush: {}",
+                    deltas.size(), e.getMessage());
+            restore(partitions, acks);
+            return;
+        }
+
+        flushedProfiles.increment(increments.size());
+        acks.forEach(Acknowledgment::acknowledge);
+        for (ProfileIncrement increment : increments) {
+            kafkaTemplate.send(properties.changeTopic(), increment.userId(), increment.userId());
+        }
+        logger.debug(">>> {} perfis atualizados a partir de transaction_events", increments.size());
+    }
+
+    // Devolve um lote que falhou para a frente do que chegou enquanto ele era gravado
+    private void restore(Map<TopicPartition, PartitionPending> partitions, List<Acknowledgment> acks) {
+        synchronized (pendingLock) {
+            partitions.forEach((topicPartition, older) -> {
+                PartitionPending newer = pending.get(topicPartition);
+                if (newer == null) {
+                    pending.put(topicPartition, older);
+                } else {
+                    newer.mergeOlder(older);
+                }
+            });
+            acks.addAll(pendingAcks);
+            pendingAcks = acks;
+        }
+    }
+
+    // Posiciona o consumidor nos offsets gravados junto com os perfis
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        try {
+            writer.nextOffsets(partitions).forEach((partition, offset) -> consumer.seek(partition, offset));
+        } catch (RuntimeException e) {
+            logger.error(">>> Falha ao ler os offsets de {} no banco; usando os offsets do Kafka", partitions, e);
+        }
+    }
+
+    // Roda na thread do consumidor, antes de o novo dono receber as partições: o pendente é
+    // gravado agora. Se o flush falhar, o que era das partições revogadas é descartado, já que
+    // o novo dono relê esses eventos a partir dos offsets do banco
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        flush();
+        discard(partitions);
+    }
+
+    // Partições perdidas (sessão expirada) já podem estar com outro consumidor: nada é gravado
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        discard(partitions);
+    }
+
+    private void discard(Collection<TopicPartition> partitions) {
+        synchronized (pendingLock) {
+            for (TopicPartition partition : partitions) {
+                PartitionPending discarded = pending.remove(partition);
+                if (discarded != null && !discarded.deltas.isEmpty()) {
+                    logger.warn(">>> {} perfis pendentes de {} descartados; o novo dono da partição relê os eventos",
+                            discarded.deltas.size(), partition);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    // Para antes dos containers do Kafka, que ainda confirmam os offsets do último flush
+    @Override
+    public void stop() {
+        flush();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    // Deltas ainda não gravados de uma partição e o offset seguinte ao último registro lido
+    private static final class PartitionPending {
+
+        private final TopicPartition topicPartition;
+        private final Map<String, ProfileDelta> deltas = new HashMap<>();
+        private long nextOffset;
+
+        private PartitionPending(TopicPartition topicPartition) {
+            this.topicPartition = topicPartition;
+        }
+
+        private boolean owns(ConsumerRecord<?, ?> record) {
+            return topicPartition.partition() == record.partition() && topicPartition.topic().equals(record.topic());
+        }
+
+        private void mergeOlder(PartitionPending older) {
+            older.deltas.forEach((userId, olderDelta) -> {
+                ProfileDelta newer = deltas.get(userId);
+                if (newer == null) {
+                    deltas.put(userId, olderDelta);
+                } else {
+                    newer.mergeOlder(olderDelta);
+                }
+            });
+            nextOffset = Math.max(nextOffset, older.nextOffset);
+        }
+    }
+}
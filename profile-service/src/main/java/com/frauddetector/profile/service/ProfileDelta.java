@@ -0,0 +1,38 @@
+package com.frauddetector.profile.service;
+
+// Transações de um usuário ainda não gravadas: quantidade, soma e último país
+final class ProfileDelta {
+
+    private int count;
+    private double sum;
+    private String lastCountry;
+
+    void add(double value, String country) {
+        count++;
+        sum += value;
+        if (country != null) {
+            lastCountry = country;
+        }
+    }
+
+    // Junta um delta mais antigo (ex.: de um flush que falhou) sem perder o país mais recente
+    void mergeOlder(ProfileDelta older) {
+        count += older.count;
+        sum += older.sum;
+        if (lastCountry == null) {
+            lastCountry = older.lastCountry;
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    double mean() {
+        return sum / count;
+    }
+
+    String lastCountry() {
+        return lastCountry;
+    }
+}
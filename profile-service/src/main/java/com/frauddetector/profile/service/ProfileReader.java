@@ -0,0 +1,16 @@
+package com.frauddetector.profile.service;
+
+import com.frauddetector.profile.entity.UserProfile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+// Caminho de leitura dos perfis, escolhido por `profile.read-path` (r2dbc | jpa)
+public interface ProfileReader {
+
+    Mono<UserProfile> findById(String userId);
+
+    // Busca um bloco de IDs em uma única consulta; IDs inexistentes são omitidos
+    Flux<UserProfile> findAllById(Collection<String> userIds);
+}
@@ -0,0 +1,60 @@
+package com.frauddetector.profile.service;
+
+import com.frauddetector.profile.entity.UserProfile;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+// Leitura não bloqueante com R2DBC, sobre a mesma tabela user_profiles mapeada pelo JPA
+@Service
+@ConditionalOnProperty(name = "profile.read-path", havingValue = "r2dbc", matchIfMissing = true)
+public class R2dbcProfileReader implements ProfileReader {
+
+    private static final String SELECT_BY_ID = """
+            SELECT user_id, transaction_count, average_amount, last_transaction_country
+            FROM user_profiles
+            WHERE user_id = $1
+            """;
+
+    private static final String SELECT_BY_IDS = """
+            SELECT user_id, transaction_count, average_amount, last_transaction_country
+            FROM user_profiles
+            WHERE user_id = ANY($1)
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public R2dbcProfileReader(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<UserProfile> findById(String userId) {
+        return databaseClient.sql(SELECT_BY_ID)
+                .bind(0, userId)
+                .map(R2dbcProfileReader::toProfile)
+                .one();
+    }
+
+    @Override
+    public Flux<UserProfile> findAllById(Collection<String> userIds) {
+        return databaseClient.sql(SELECT_BY_IDS)
+                .bind(0, userIds.toArray(String[]::new))
+                .map(R2dbcProfileReader::toProfile)
+                .all();
+    }
+
+    static UserProfile toProfile(Readable row) {
+        UserProfile profile = new UserProfile();
+        profile.setUserId(row.get("user_id", String.class));
+        profile.setTransactionCount(row.get("transaction_count", Integer.class));
+        profile.setAverageAmount(row.get("average_amount", Double.class));
+        profile.setLastTransactionCountry(row.get("last_transaction_country", String.class));
+        return profile;
+    }
+}
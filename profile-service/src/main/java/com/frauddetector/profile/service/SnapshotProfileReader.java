@@ -0,0 +1,69 @@
+package com.frauddetector.profile.service;
+
+import com.frauddetector.profile.entity.UserProfile;
+import com.frauddetector.profile.snapshot.ProfileSnapshotStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Lê do snapshot mapeado em memória; perfis ausentes (novos ou antes do primeiro
+// snapshot) são buscados no banco pelo caminho R2DBC
+@Service
+@ConditionalOnProperty(name = "profile.read-path", havingValue = "snapshot")
+public class SnapshotProfileReader implements ProfileReader {
+
+    private final ProfileSnapshotStore store;
+    private final ProfileReader fallback;
+    private final Counter snapshotHits;
+    private final Counter databaseFallbacks;
+
+    public SnapshotProfileReader(ProfileSnapshotStore store, DatabaseClient databaseClient, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.fallback = new R2dbcProfileReader(databaseClient);
+        this.snapshotHits = Counter.builder("profile.snapshot.reads")
+                .tag("source", "snapshot")
+                .register(meterRegistry);
+        this.databaseFallbacks = Counter.builder("profile.snapshot.reads")
+                .tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<UserProfile> findById(String userId) {
+        UserProfile profile = store.find(userId);
+        if (profile != null) {
+            snapshotHits.increment();
+            return Mono.just(profile);
+        }
+        databaseFallbacks.increment();
+        return fallback.findById(userId);
+    }
+
+    @Override
+    public Flux<UserProfile> findAllById(Collection<String> userIds) {
+        List<UserProfile> found = new ArrayList<>(userIds.size());
+        List<String> missing = new ArrayList<>();
+        for (String userId : userIds) {
+            UserProfile profile = store.find(userId);
+            if (profile != null) {
+                found.add(profile);
+            } else {
+                missing.add(userId);
+            }
+        }
+        snapshotHits.increment(found.size());
+        if (missing.isEmpty()) {
+            return Flux.fromIterable(found);
+        }
+        databaseFallbacks.increment(missing.size());
+        return Flux.fromIterable(found).concatWith(fallback.findAllById(missing));
+    }
+}
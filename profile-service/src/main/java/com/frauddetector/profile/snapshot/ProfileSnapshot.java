@@ -0,0 +1,140 @@
+package com.frauddetector.profile.snapshot;
+
+import com.frauddetector.profile.entity.UserProfile;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Snapshot imutável de user_profiles mapeado em memória (ver ProfileSnapshotLayout).
+// Os dados ficam no page cache, fora do heap: abrir um arquivo existente é quase
+// instantâneo e as consultas são só leituras absolutas, seguras entre threads.
+public final class ProfileSnapshot {
+
+    private final Path file;
+    private final int count;
+    private final int mask;
+    private final long createdAt;
+    private final MappedByteBuffer index;
+    private final MappedByteBuffer offsets;
+    private final MappedByteBuffer counts;
+    private final MappedByteBuffer averages;
+    private final MappedByteBuffer countries;
+    private final MappedByteBuffer keys;
+    private final String[] countryDictionary;
+
+    private ProfileSnapshot(Path file, FileChannel channel, ByteBuffer header) throws IOException {
+        if (header.getInt(ProfileSnapshotLayout.MAGIC_AT) != ProfileSnapshotLayout.MAGIC
+                || header.getInt(ProfileSnapshotLayout.VERSION_AT) != ProfileSnapshotLayout.VERSION) {
+            throw new IOException("Arquivo de snapshot inválido: " + file);
+        }
+        ProfileSnapshotLayout layout = ProfileSnapshotLayout.of(header.getInt(ProfileSnapshotLayout.COUNT_AT));
+        long keysBytes = header.getLong(ProfileSnapshotLayout.KEYS_BYTES_AT);
+        long dictionaryOffset = header.getLong(ProfileSnapshotLayout.DICTIONARY_OFFSET_AT);
+
+        this.file = file;
+        this.count = layout.count();
+        this.mask = layout.capacity() - 1;
+        this.createdAt = header.getLong(ProfileSnapshotLayout.CREATED_AT);
+        this.index = map(channel, layout.indexOffset(), layout.indexBytes());
+        this.offsets = map(channel, layout.offsetsOffset(), layout.offsetsBytes());
+        this.counts = map(channel, layout.countsOffset(), layout.countsBytes());
+        this.averages = map(channel, layout.averagesOffset(), layout.averagesBytes());
+        this.countries = map(channel, layout.countriesOffset(), layout.countriesBytes());
+        this.keys = map(channel, layout.keysOffset(), keysBytes);
+        this.countryDictionary = readDictionary(channel, dictionaryOffset);
+    }
+
+    public static ProfileSnapshot open(Path file) throws IOException {
+        // O mapeamento continua válido depois que o canal é fechado
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, ProfileSnapshotLayout.HEADER_BYTES);
+            return new ProfileSnapshot(file, channel, header);
+        }
+    }
+
+    // Perfil do usuário ou null se ele não está no snapshot
+    public UserProfile find(String userId) {
+        int row = rowOf(userId);
+        if (row < 0) {
+            return null;
+        }
+        UserProfile profile = new UserProfile();
+        profile.setUserId(userId);
+        profile.setTransactionCount(counts.getInt(row * Integer.BYTES));
+        profile.setAverageAmount(averages.getDouble(row * Double.BYTES));
+        short country = countries.getShort(row * Short.BYTES);
+        profile.setLastTransactionCountry(country < 0 ? null : countryDictionary[country]);
+        return profile;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long createdAt() {
+        return createdAt;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    // Sondagem linear: compara o hash guardado no slot antes de comparar os bytes da chave
+    private int rowOf(String userId) {
+        int hash = ProfileSnapshotLayout.hash(userId);
+        byte[] key = null;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long entry = index.getLong(slot * Long.BYTES);
+            if (entry == 0) {
+                return -1;
+            }
+            if ((int) (entry >>> 32) != hash) {
+                continue;
+            }
+            int row = (int) entry - 1;
+            if (key == null) {
+                key = userId.getBytes(StandardCharsets.UTF_8);
+            }
+            if (keyEquals(row, key)) {
+                return row;
+            }
+        }
+    }
+
+    private boolean keyEquals(int row, byte[] key) {
+        int start = offsets.getInt(row * Integer.BYTES);
+        int end = offsets.getInt((row + 1) * Integer.BYTES);
+        if (end - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (keys.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long offset, long bytes) throws IOException {
+        ProfileSnapshotLayout.checkSectionSize(bytes);
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, bytes);
+    }
+
+    private static String[] readDictionary(FileChannel channel, long offset) throws IOException {
+        InputStream input = Channels.newInputStream(channel.position(offset));
+        DataInputStream data = new DataInputStream(input);
+        String[] dictionary = new String[data.readShort()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = data.readUTF();
+        }
+        return dictionary;
+    }
+}
@@ -0,0 +1,88 @@
+package com.frauddetector.profile.snapshot;
+
+// Posições das seções no arquivo do snapshot, derivadas da quantidade de perfis:
+//
+//   cabeçalho (64 bytes) | índice long[capacity] | offsets int[count + 1] | transactionCount int[count]
+//   | averageAmount double[count] | país short[count] | chaves (UTF-8) | dicionário de países
+//
+// Cada entrada do índice guarda (hash << 32 | linha + 1); 0 marca um slot vazio.
+// O tamanho das chaves só é conhecido depois de gravá-las, por isso elas ficam no fim.
+record ProfileSnapshotLayout(
+        int count,
+        int capacity,
+        long indexOffset,
+        long offsetsOffset,
+        long countsOffset,
+        long averagesOffset,
+        long countriesOffset,
+        long keysOffset
+) {
+    static final int MAGIC = 0x50534E50; // "PSNP"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+
+    // Campos do cabeçalho
+    static final int MAGIC_AT = 0;
+    static final int VERSION_AT = 4;
+    static final int COUNT_AT = 8;
+    static final int CAPACITY_AT = 12;
+    static final int KEYS_BYTES_AT = 16;
+    static final int DICTIONARY_OFFSET_AT = 24;
+    static final int CREATED_AT = 32;
+
+    static ProfileSnapshotLayout of(int count) {
+        // Fator de carga de no máximo 0,5 mantém as sondagens lineares curtas
+        int capacity = Math.max(2, Integer.highestOneBit(Math.max(1, count) * 2 - 1) << 1);
+        long indexOffset = HEADER_BYTES;
+        long offsetsOffset = indexOffset + (long) capacity * Long.BYTES;
+        long countsOffset = offsetsOffset + (long) (count + 1) * Integer.BYTES;
+        long averagesOffset = align8(countsOffset + (long) count * Integer.BYTES);
+        long countriesOffset = averagesOffset + (long) count * Double.BYTES;
+        long keysOffset = countriesOffset + (long) count * Short.BYTES;
+
+        ProfileSnapshotLayout layout = new ProfileSnapshotLayout(count, capacity, indexOffset, offsetsOffset,
+                countsOffset, averagesOffset, countriesOffset, keysOffset);
+        // Cada seção é mapeada em um único MappedByteBuffer (limite de 2 GB)
+        checkSectionSize(layout.indexBytes());
+        checkSectionSize(layout.averagesBytes());
+        return layout;
+    }
+
+    long indexBytes() {
+        return (long) capacity * Long.BYTES;
+    }
+
+    long offsetsBytes() {
+        return (long) (count + 1) * Integer.BYTES;
+    }
+
+    long countsBytes() {
+        return (long) count * Integer.BYTES;
+    }
+
+    long averagesBytes() {
+        return (long) count * Double.BYTES;
+    }
+
+    long countriesBytes() {
+        return (long) count * Short.BYTES;
+    }
+
+    static int hash(String userId) {
+        int h = userId.hashCode();
+        h ^= h >>> 16;
+        h *= 0x45d9f3b;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    static void checkSectionSize(long bytes) {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Seção do snapshot de perfis maior que 2 GB: " + bytes + " bytes");
+        }
+    }
+
+    private static long align8(long offset) {
+        return (offset + 7) & ~7L;
+    }
+}
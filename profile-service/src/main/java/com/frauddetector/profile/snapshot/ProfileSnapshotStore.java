@@ -0,0 +1,184 @@
+package com.frauddetector.profile.snapshot;
+
+import com.frauddetector.profile.config.ProfileSnapshotProperties;
+import com.frauddetector.profile.entity.UserProfile;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Mantém o snapshot em uso e os perfis alterados desde que ele foi gerado (overlay).
+// A reconstrução grava um arquivo novo e troca snapshot + overlay de uma vez só; as
+// leituras nunca veem um estado parcial.
+@Component
+@ConditionalOnProperty(name = "profile.read-path", havingValue = "snapshot")
+public class ProfileSnapshotStore {
+
+    private static final String FILE_PREFIX = "profiles-";
+    private static final String FILE_SUFFIX = ".snap";
+
+    private static final String SELECT_BY_IDS = """
+            SELECT user_id, transaction_count, average_amount, last_transaction_country
+            FROM user_profiles
+            WHERE user_id = ANY(?)
+            """;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Path directory;
+    private final ProfileSnapshotWriter writer;
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer rebuildTime;
+
+    private final AtomicReference<SnapshotView> current =
+            new AtomicReference<>(new SnapshotView(null, new ConcurrentHashMap<>()));
+    // Durante uma reconstrução, as alterações também vão para o overlay do próximo snapshot
+    private volatile Map<String, UserProfile> nextOverlay;
+
+    public ProfileSnapshotStore(
+            ProfileSnapshotProperties properties,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry
+    ) throws IOException {
+        this.directory = Path.of(properties.directory());
+        this.writer = new ProfileSnapshotWriter(dataSource, transactionManager, properties.fetchSize());
+        this.jdbcTemplate = jdbcTemplate;
+        this.rebuildTime = Timer.builder("profile.snapshot.rebuild")
+                .description("Tempo para gerar e trocar o snapshot de perfis")
+                .register(meterRegistry);
+        Gauge.builder("profile.snapshot.size", current, view -> view.get().size())
+                .register(meterRegistry);
+        Gauge.builder("profile.snapshot.overlay.size", current, view -> view.get().overlay().size())
+                .register(meterRegistry);
+
+        Files.createDirectories(directory);
+        openLatest();
+    }
+
+    // Perfil do snapshot (ou do overlay) ou null quando ele não sabe responder
+    public UserProfile find(String userId) {
+        SnapshotView view = current.get();
+        UserProfile changed = view.overlay().get(userId);
+        if (changed != null) {
+            return changed;
+        }
+        return view.snapshot() == null ? null : view.snapshot().find(userId);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${profile.snapshot.rebuild-interval:10m}")
+    public void rebuild() {
+        Path target = directory.resolve(FILE_PREFIX + System.currentTimeMillis() + FILE_SUFFIX);
+        Map<String, UserProfile> overlay = new ConcurrentHashMap<>();
+        nextOverlay = overlay;
+        try {
+            rebuildTime.recordCallable(() -> {
+                writer.write(target);
+                current.set(new SnapshotView(ProfileSnapshot.open(target), overlay));
+                return null;
+            });
+            logger.info(">>> Snapshot de perfis trocado: {} ({} perfis)", target, current.get().size());
+            deleteOlderThan(target);
+        } catch (Exception e) {
+            logger.warn(">>> Falha ao reconstruir o snapshot de perfis, mantendo o atual: {}", e.getMessage());
+        } finally {
+            nextOverlay = null;
+        }
+    }
+
+    // Aplica no overlay os perfis gravados pela agregação (de qualquer instância)
+    @KafkaListener(
+            topics = "${profile.aggregation.change-topic:profile_change_events}",
+            groupId = "profile-snapshot-${random.uuid}",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer"
+            }
+    )
+    public void onProfilesChanged(List<String> userIds) {
+        List<UserProfile> profiles = jdbcTemplate.query(
+                SELECT_BY_IDS,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", userIds.toArray())),
+                (row, rowNum) -> {
+                    UserProfile profile = new UserProfile();
+                    profile.setUserId(row.getString(1));
+                    profile.setTransactionCount(row.getInt(2));
+                    profile.setAverageAmount(row.getDouble(3));
+                    profile.setLastTransactionCountry(row.getString(4));
+                    return profile;
+                });
+
+        Map<String, UserProfile> next = nextOverlay;
+        Map<String, UserProfile> overlay = current.get().overlay();
+        for (UserProfile profile : profiles) {
+            overlay.put(profile.getUserId(), profile);
+            if (next != null) {
+                next.put(profile.getUserId(), profile);
+            }
+        }
+    }
+
+    // Reinício rápido: serve o último arquivo gerado até a primeira reconstrução terminar
+    private void openLatest() throws IOException {
+        List<Path> files = snapshotFiles();
+        if (files.isEmpty()) {
+            return;
+        }
+        Path latest = files.get(files.size() - 1);
+        try {
+            current.set(new SnapshotView(ProfileSnapshot.open(latest), new ConcurrentHashMap<>()));
+            logger.info(">>> Snapshot de perfis carregado de {} ({} perfis)", latest, current.get().size());
+        } catch (IOException e) {
+            logger.warn(">>> Snapshot de perfis ignorado ({}): {}", latest, e.getMessage());
+        }
+    }
+
+    // O mapeamento de um arquivo apagado continua válido para leituras em andamento
+    private void deleteOlderThan(Path keep) {
+        try {
+            for (Path file : snapshotFiles()) {
+                if (!file.equals(keep)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn(">>> Não foi possível apagar snapshots antigos: {}", e.getMessage());
+        }
+    }
+
+    // Os nomes carregam o instante da geração, então a ordem alfabética é cronológica
+    private List<Path> snapshotFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private record SnapshotView(ProfileSnapshot snapshot, Map<String, UserProfile> overlay) {
+
+        int size() {
+            return snapshot == null ? 0 : snapshot.size();
+        }
+    }
+}
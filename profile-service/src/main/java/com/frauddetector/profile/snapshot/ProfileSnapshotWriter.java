@@ -0,0 +1,168 @@
+package com.frauddetector.profile.snapshot;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Gera um arquivo de snapshot lendo user_profiles em streaming (cursor do Postgres),
+// gravando cada linha direto nas seções mapeadas, sem montar a tabela no heap
+public class ProfileSnapshotWriter {
+
+    private static final String COUNT_SQL = "SELECT count(*) FROM user_profiles";
+
+    private static final String SELECT_ALL_SQL = """
+            SELECT user_id, transaction_count, average_amount, last_transaction_country
+            FROM user_profiles
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProfileSnapshotWriter(DataSource dataSource, PlatformTransactionManager transactionManager, int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // Contagem e leitura enxergam a mesma versão da tabela; o cursor exige autocommit desligado
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // Grava em <target>.tmp e renomeia no fim: um arquivo com o nome final está sempre completo
+    public void write(Path target) throws IOException {
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    writeRows(channel);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            channel.force(true);
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(temporary);
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeRows(FileChannel channel) throws IOException {
+        int count = jdbcTemplate.queryForObject(COUNT_SQL, Integer.class);
+        ProfileSnapshotLayout layout = ProfileSnapshotLayout.of(count);
+        int mask = layout.capacity() - 1;
+
+        MappedByteBuffer index = map(channel, layout.indexOffset(), layout.indexBytes());
+        MappedByteBuffer offsets = map(channel, layout.offsetsOffset(), layout.offsetsBytes());
+        MappedByteBuffer counts = map(channel, layout.countsOffset(), layout.countsBytes());
+        MappedByteBuffer averages = map(channel, layout.averagesOffset(), layout.averagesBytes());
+        MappedByteBuffer countries = map(channel, layout.countriesOffset(), layout.countriesBytes());
+
+        Map<String, Short> countryCodes = new HashMap<>();
+        OutputStream keys = new BufferedOutputStream(Channels.newOutputStream(channel.position(layout.keysOffset())), 1 << 16);
+        long[] keysBytes = {0};
+        int[] row = {0};
+
+        jdbcTemplate.query(SELECT_ALL_SQL, resultSet -> {
+            if (row[0] == count) {
+                throw new IllegalStateException("user_profiles mudou durante a leitura do snapshot");
+            }
+            String userId = resultSet.getString(1);
+            byte[] key = userId.getBytes(StandardCharsets.UTF_8);
+            int r = row[0]++;
+
+            offsets.putInt(r * Integer.BYTES, checkedOffset(keysBytes[0]));
+            counts.putInt(r * Integer.BYTES, resultSet.getInt(2));
+            averages.putDouble(r * Double.BYTES, resultSet.getDouble(3));
+            countries.putShort(r * Short.BYTES, countryCode(countryCodes, resultSet.getString(4)));
+
+            // user_id é chave primária: basta achar o primeiro slot livre
+            int hash = ProfileSnapshotLayout.hash(userId);
+            int slot = hash & mask;
+            while (index.getLong(slot * Long.BYTES) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index.putLong(slot * Long.BYTES, ((long) hash << 32) | (r + 1));
+
+            try {
+                keys.write(key);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            keysBytes[0] += key.length;
+        });
+        if (row[0] != count) {
+            throw new IllegalStateException("user_profiles mudou durante a leitura do snapshot");
+        }
+        offsets.putInt(count * Integer.BYTES, checkedOffset(keysBytes[0]));
+
+        // Dicionário de países logo após as chaves, na ordem dos códigos
+        DataOutputStream dictionary = new DataOutputStream(keys);
+        String[] byCode = new String[countryCodes.size()];
+        countryCodes.forEach((country, code) -> byCode[code] = country);
+        dictionary.writeShort(byCode.length);
+        for (String country : byCode) {
+            dictionary.writeUTF(country);
+        }
+        dictionary.flush();
+
+        MappedByteBuffer header = map(channel, 0, ProfileSnapshotLayout.HEADER_BYTES);
+        header.putInt(ProfileSnapshotLayout.MAGIC_AT, ProfileSnapshotLayout.MAGIC);
+        header.putInt(ProfileSnapshotLayout.VERSION_AT, ProfileSnapshotLayout.VERSION);
+        header.putInt(ProfileSnapshotLayout.COUNT_AT, count);
+        header.putInt(ProfileSnapshotLayout.CAPACITY_AT, layout.capacity());
+        header.putLong(ProfileSnapshotLayout.KEYS_BYTES_AT, keysBytes[0]);
+        header.putLong(ProfileSnapshotLayout.DICTIONARY_OFFSET_AT, layout.keysOffset() + keysBytes[0]);
+        header.putLong(ProfileSnapshotLayout.CREATED_AT, System.currentTimeMillis());
+
+        for (MappedByteBuffer section : List.of(index, offsets, counts, averages, countries, header)) {
+            section.force();
+        }
+    }
+
+    private static short countryCode(Map<String, Short> countryCodes, String country) {
+        if (country == null) {
+            return -1;
+        }
+        Short code = countryCodes.get(country);
+        if (code == null) {
+            if (countryCodes.size() == Short.MAX_VALUE) {
+                throw new IllegalStateException("Países distintos demais para o snapshot");
+            }
+            code = (short) countryCodes.size();
+            countryCodes.put(country, code);
+        }
+        return code;
+    }
+
+    private static int checkedOffset(long offset) {
+        ProfileSnapshotLayout.checkSectionSize(offset);
+        return (int) offset;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long offset, long bytes) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, offset, bytes);
+    }
+}